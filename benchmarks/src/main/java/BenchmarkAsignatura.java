@@ -0,0 +1,53 @@
+/**
+ * Benchmark de las operaciones de Asignatura con 10 a 10^7 alumnos.
+ * Sirve de referencia para detectar regresiones de rendimiento.
+ * media, minimo, maximo y totalSuspensos se guardan tras calcularse, así que se miden dos veces:
+ * la consulta repetida sin cambios, O(1), e "invalidar+" la misma consulta tras descartar las
+ * estadísticas (volviendo a poner el mismo almacén, sin copiar notas), que recorre todas las notas.
+ * Uso: mvn -q package && java -cp core/target/classes:benchmarks/target/classes BenchmarkAsignatura [maxAlumnos]
+ */
+public class BenchmarkAsignatura {
+
+    public static void main(String[] args) {
+        int maxAlumnos = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        Medidor.cabecera();
+        for (int alumnos = 10; alumnos <= maxAlumnos; alumnos *= 100) {
+            int n = alumnos;
+            Asignatura asignatura = new Asignatura("Benchmark", Medidor.notasAleatorias(n, 42));
+            AlmacenNotas almacen = asignatura.getAlmacen();
+            java.util.Random aleatorio = new java.util.Random(7);
+
+            Medidor.fila("media", n, 1, Medidor.medir(() -> Medidor.sumideroNumero = asignatura.media()));
+            Medidor.fila("minimo", n, 1, Medidor.medir(() -> Medidor.sumideroNumero = asignatura.minimo()));
+            Medidor.fila("maximo", n, 1, Medidor.medir(() -> Medidor.sumideroNumero = asignatura.maximo()));
+            Medidor.fila("totalSuspensos", n, 1,
+                    Medidor.medir(() -> Medidor.sumideroNumero = asignatura.totalSuspensos()));
+            // Volver a poner el mismo almacén descarta las estadísticas sin tocar las notas
+            Medidor.fila("invalidar+media", n, 1, Medidor.medir(() -> {
+                asignatura.reemplazarAlmacen(almacen);
+                Medidor.sumideroNumero = asignatura.media();
+            }));
+            Medidor.fila("invalidar+minimo", n, 1, Medidor.medir(() -> {
+                asignatura.reemplazarAlmacen(almacen);
+                Medidor.sumideroNumero = asignatura.minimo();
+            }));
+            Medidor.fila("invalidar+maximo", n, 1, Medidor.medir(() -> {
+                asignatura.reemplazarAlmacen(almacen);
+                Medidor.sumideroNumero = asignatura.maximo();
+            }));
+            Medidor.fila("invalidar+totalSuspensos", n, 1, Medidor.medir(() -> {
+                asignatura.reemplazarAlmacen(almacen);
+                Medidor.sumideroNumero = asignatura.totalSuspensos();
+            }));
+            Medidor.fila("cambiarNota+media", n, 1, Medidor.medir(() -> {
+                asignatura.cambiarNota(aleatorio.nextInt(101) / 10.0, aleatorio.nextInt(n));
+                Medidor.sumideroNumero = asignatura.media();
+            }));
+            Medidor.fila("dameAprobados", n, 1, Medidor.medir(() -> Medidor.sumidero = asignatura.dameAprobados()));
+            Medidor.fila("ordenar", n, 1, Medidor.medir(() -> Medidor.sumidero = asignatura.ordenar()));
+            // Ninguna nota es menor que 0, así que primerMenor recorre todas las notas
+            Medidor.fila("primerMenor", n, 1, Medidor.medir(() -> Medidor.sumideroNumero = asignatura.primerMenor(0)));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Benchmark de las operaciones de Grupo para combinaciones de 10 a 10^7 alumnos
+ * y de 10 a 1000 asignaturas, limitadas a un número máximo de notas en total.
+ * Por defecto el límite es el de las notas que caben en la mitad de la memoria de la JVM,
+ * así que con suficiente -Xmx se miden todas las combinaciones; las que no caben se indican
+ * en la salida en lugar de omitirse sin avisar.
+ * Sirve de referencia para detectar regresiones de rendimiento.
+ * Uso: mvn -q package && java -Xmx16g -cp core/target/classes:benchmarks/target/classes BenchmarkGrupo [maxNotas]
+ */
+public class BenchmarkGrupo {
+
+    public static void main(String[] args) {
+        long maxNotas = args.length > 0 ? Long.parseLong(args[0]) : Runtime.getRuntime().maxMemory() / 2 / Double.BYTES;
+        PrintStream consola = System.out;
+        // analizaCurso escribe en consola: durante las mediciones se descarta esa salida
+        PrintStream nula = new PrintStream(OutputStream.nullOutputStream());
+
+        Medidor.cabecera();
+        for (int alumnos = 10; alumnos <= 10_000_000; alumnos *= 100) {
+            for (int totalAsignaturas = 10; totalAsignaturas <= 1000; totalAsignaturas *= 10) {
+                if ((long) alumnos * totalAsignaturas > maxNotas) {
+                    System.out.println(String.format("%-28s%-12d%-12d%s", "(omitido)", alumnos, totalAsignaturas,
+                            "> " + maxNotas + " notas"));
+                    continue;
+                }
+                Grupo grupo = crearGrupo(alumnos, totalAsignaturas);
+                int n = alumnos;
+                int m = totalAsignaturas;
+
+                Medidor.fila("dameAlumnoMedia", n, m,
+                        Medidor.medir(() -> Medidor.sumideroNumero = grupo.dameAlumnoMedia(n / 2)));
+                Medidor.fila("dameMejorAlumnoMedia", n, m,
+                        Medidor.medir(() -> Medidor.sumidero = grupo.dameMejorAlumnoMedia()));
+                System.setOut(nula);
+                double analiza = Medidor.medir(grupo::analizaCurso);
+                System.setOut(consola);
+                Medidor.fila("analizaCurso", n, m, analiza);
+                Medidor.fila("toString", n, m, Medidor.medir(() -> Medidor.sumidero = grupo.toString()));
+            }
+        }
+    }
+
+    /**
+     * Crea un grupo con notas aleatorias.
+     */
+    private static Grupo crearGrupo(int alumnos, int totalAsignaturas) {
+        String[] nombres = new String[alumnos];
+        for (int i = 0; i < alumnos; i++) {
+            nombres[i] = "Alumno" + i;
+        }
+        Asignatura[] asignaturas = new Asignatura[totalAsignaturas];
+        for (int j = 0; j < totalAsignaturas; j++) {
+            asignaturas[j] = new Asignatura("Asignatura" + j, Medidor.notasAleatorias(alumnos, j));
+        }
+        return new Grupo("Benchmark", nombres, asignaturas);
+    }
+}
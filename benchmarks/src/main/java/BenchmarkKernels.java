@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Programa que compara el rendimiento de las implementaciones de KernelNotas
+ * sobre arrays de 10^5 a 10^8 notas, incluida la pasada fusionada (reducir) frente a
+ * las cuatro reducciones por separado.
+ * Uso: mvn -q package && java -cp core/target/classes:benchmarks/target/classes BenchmarkKernels [exponenteMaximo]
+ * (por defecto 7; 8 necesita unos 800 MB de heap). Para medir también el kernel vectorial:
+ * mvn -q -Pvector package y ejecutar con --add-modules jdk.incubator.vector.
+ */
+public class BenchmarkKernels {
+
+    private static final int REPETICIONES = 15; // Mediciones por operación (se queda la mejor).
+    private static final int OPERACIONES = 6;   // Suma, mínimo, máximo, suspensos, cuatro pasadas y fusionada.
+    private static volatile double sumidero;     // Evita que el JIT elimine los cálculos.
+
+    public static void main(String[] args) {
+        int exponenteMaximo = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        List<KernelNotas> kernels = new ArrayList<>();
+        kernels.add(KernelNotas.elegir("escalar"));
+        kernels.add(KernelNotas.elegir("desenrollado"));
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            kernels.add(KernelNotas.elegir("vectorial"));
+        }
+        Random aleatorio = new Random(42);
+
+        System.out.println("Kernel por defecto: " + KernelNotas.ACTUAL.getClass().getSimpleName());
+        StringBuilder cabecera = new StringBuilder(String.format("%-12s%-15s", "Notas", "Operación"));
+        for (KernelNotas kernel : kernels) {
+            cabecera.append(String.format("%-25s", kernel.getClass().getSimpleName() + " ns/n"));
+        }
+        System.out.println(cabecera);
+        for (int exponente = 5; exponente <= exponenteMaximo; exponente++) {
+            int total = (int) Math.pow(10, exponente);
+            double[] notas = new double[total];
+            for (int i = 0; i < total; i++) {
+                notas[i] = aleatorio.nextInt(101) / 10.0; // Notas de 0.0 a 10.0 en décimas.
+            }
+            for (int operacion = 0; operacion < OPERACIONES; operacion++) {
+                StringBuilder fila = new StringBuilder(String.format("%-12d%-15s", total, nombreOperacion(operacion)));
+                for (KernelNotas kernel : kernels) {
+                    fila.append(String.format("%-25.3f", medir(kernel, operacion, notas) / total));
+                }
+                System.out.println(fila);
+            }
+        }
+    }
+
+    /**
+     * Mide el mejor tiempo de una operación tras calentar el JIT.
+     * @param kernel Implementación a medir.
+     * @param operacion 0 = suma, 1 = mínimo, 2 = máximo, 3 = suspensos,
+     *                  4 = las cuatro por separado, 5 = las cuatro en una pasada.
+     * @param notas Array de notas.
+     * @return Mejor tiempo en nanosegundos.
+     */
+    private static double medir(KernelNotas kernel, int operacion, double[] notas) {
+        // Calentamiento: al menos medio segundo para que el JIT compile el bucle.
+        long finCalentamiento = System.nanoTime() + 500_000_000L;
+        do {
+            ejecutar(kernel, operacion, notas);
+        } while (System.nanoTime() < finCalentamiento);
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            ejecutar(kernel, operacion, notas);
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return mejor;
+    }
+
+    private static void ejecutar(KernelNotas kernel, int operacion, double[] notas) {
+        switch (operacion) {
+            case 0:
+                sumidero = kernel.suma(notas, 0, notas.length);
+                break;
+            case 1:
+                sumidero = kernel.minimo(notas, 0, notas.length);
+                break;
+            case 2:
+                sumidero = kernel.maximo(notas, 0, notas.length);
+                break;
+            case 3:
+                sumidero = kernel.contarMenores(notas, 0, notas.length, 5);
+                break;
+            case 4:
+                sumidero = kernel.suma(notas, 0, notas.length) + kernel.contarMenores(notas, 0, notas.length, 5)
+                        + kernel.minimo(notas, 0, notas.length) + kernel.maximo(notas, 0, notas.length);
+                break;
+            default:
+                ReduccionNotas reduccion = new ReduccionNotas();
+                kernel.reducir(notas, 0, notas.length, 5, reduccion);
+                sumidero = reduccion.suma + reduccion.menores + reduccion.minimo + reduccion.maximo;
+        }
+    }
+
+    private static String nombreOperacion(int operacion) {
+        switch (operacion) {
+            case 0:
+                return "suma";
+            case 1:
+                return "mínimo";
+            case 2:
+                return "máximo";
+            case 3:
+                return "suspensos";
+            case 4:
+                return "4 pasadas";
+            default:
+                return "fusionada";
+        }
+    }
+}
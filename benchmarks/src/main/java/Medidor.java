@@ -0,0 +1,66 @@
+/**
+ * Utilidad común de los benchmarks: calienta el JIT, repite una operación durante
+ * un tiempo mínimo y devuelve el tiempo medio por operación.
+ */
+class Medidor {
+
+    private static final long CALENTAMIENTO_NS = 300_000_000L; // Tiempo de calentamiento.
+    private static final long MEDICION_NS = 700_000_000L;      // Tiempo mínimo de medición.
+
+    static volatile Object sumidero;       // Evita que el JIT elimine los resultados.
+    static volatile double sumideroNumero; // Ídem para resultados numéricos.
+
+    private Medidor() {
+    }
+
+    /**
+     * Mide una operación.
+     * @param operacion Operación a medir.
+     * @return Tiempo medio en nanosegundos por operación.
+     */
+    static double medir(Runnable operacion) {
+        long fin = System.nanoTime() + CALENTAMIENTO_NS;
+        do {
+            operacion.run();
+        } while (System.nanoTime() < fin);
+
+        long repeticiones = 0;
+        long inicio = System.nanoTime();
+        long transcurrido;
+        do {
+            operacion.run();
+            repeticiones++;
+            transcurrido = System.nanoTime() - inicio;
+        } while (transcurrido < MEDICION_NS);
+        return (double) transcurrido / repeticiones;
+    }
+
+    /**
+     * Escribe la cabecera de la tabla de resultados.
+     */
+    static void cabecera() {
+        System.out.println(String.format("%-28s%-12s%-12s%-16s", "Benchmark", "Alumnos", "Asignaturas", "ns/op"));
+    }
+
+    /**
+     * Escribe una fila de la tabla de resultados.
+     */
+    static void fila(String nombre, int alumnos, int asignaturas, double nanosegundos) {
+        System.out.println(String.format("%-28s%-12d%-12d%-16.1f", nombre, alumnos, asignaturas, nanosegundos));
+    }
+
+    /**
+     * Crea un array de notas aleatorias en décimas (0.0 a 10.0).
+     * @param total Número de notas.
+     * @param semilla Semilla del generador.
+     * @return Array de notas.
+     */
+    static double[] notasAleatorias(int total, long semilla) {
+        java.util.Random aleatorio = new java.util.Random(semilla);
+        double[] notas = new double[total];
+        for (int i = 0; i < total; i++) {
+            notas[i] = aleatorio.nextInt(101) / 10.0;
+        }
+        return notas;
+    }
+}
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba el cuadro de honor y la lista de alumnos en riesgo contra una ordenación completa
+ * de las medias, en secuencial y en paralelo.
+ */
+class AlumnosExtremosTest {
+
+    @Test
+    void comoOrdenarTodasLasMedias() {
+        // Notas enteras en pocas asignaturas: las medias son exactas y hay muchos empates
+        Grupo grupo = grupoAleatorio(new Random(14), 3_000, 3);
+        grupo.eliminarAlumno(7);
+        grupo.eliminarAlumno(1_500);
+        comprobar(grupo);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            grupo.activarParalelismo(pool, 100);
+            comprobar(grupo);
+        } finally {
+            grupo.desactivarParalelismo();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void grupoPequeño() {
+        Grupo grupo = grupoAleatorio(new Random(1), 3, 2);
+        assertArrayEquals(esperados(grupo, 3, true), grupo.mejoresAlumnos(10));
+        assertArrayEquals(new int[0], grupo.peoresAlumnos(0));
+        assertArrayEquals(new int[0], grupo.peoresAlumnos(-1));
+    }
+
+    private static void comprobar(Grupo grupo) {
+        for (int k : new int[] {1, 2, 10, 100, grupo.getTotalAlumnos()}) {
+            assertArrayEquals(esperados(grupo, k, true), grupo.mejoresAlumnos(k), "mejores " + k);
+            assertArrayEquals(esperados(grupo, k, false), grupo.peoresAlumnos(k), "peores " + k);
+        }
+    }
+
+    /**
+     * Ordena todos los alumnos activos por su media y se queda con los k primeros.
+     */
+    private static int[] esperados(Grupo grupo, int k, boolean mejores) {
+        List<Integer> activos = new ArrayList<>();
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (!grupo.alumnoDadoDeBaja(i)) {
+                activos.add(i);
+            }
+        }
+        Comparator<Integer> porMedia = Comparator.comparingDouble(grupo::dameAlumnoMedia);
+        activos.sort((mejores ? porMedia.reversed() : porMedia).thenComparingInt(i -> i));
+        return activos.stream().limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Grupo grupoAleatorio(Random azar, int alumnos, int asignaturas) {
+        String[] nombres = new String[alumnos];
+        for (int i = 0; i < alumnos; i++) {
+            nombres[i] = "A" + i;
+        }
+        Asignatura[] lista = new Asignatura[asignaturas];
+        for (int j = 0; j < asignaturas; j++) {
+            double[] notas = new double[alumnos];
+            for (int i = 0; i < alumnos; i++) {
+                notas[i] = azar.nextInt(11);
+            }
+            lista[j] = new Asignatura("S" + j, notas);
+        }
+        return new Grupo("G", nombres, lista);
+    }
+}
@@ -0,0 +1,97 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que el análisis del curso da lo mismo en paralelo que en secuencial, con cualquier
+ * tamaño de tramo, y que coincide con clasificar la media de cada alumno.
+ */
+class AnalisisParaleloTest {
+
+    @Test
+    void paraleloComoSecuencial() {
+        Random azar = new Random(25);
+        Grupo grupo = grupoAleatorio(azar, 10_007, 5);
+        for (int i = 3; i < grupo.getTotalAlumnos(); i += 20) {
+            grupo.eliminarAlumno(i);
+        }
+        ResultadoAnalisis secuencial = new ResultadoAnalisis();
+        Veredicto veredicto = grupo.analizaCurso(secuencial);
+        assertEquals(recontar(grupo), secuencial.getFenomenal() + "/" + secuencial.getRepaso() + "/" + secuencial.getMal());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int umbral : new int[] {1, 7, 1_000, 5_000, 10_006}) {
+                grupo.activarParalelismo(pool, umbral);
+                ResultadoAnalisis paralelo = new ResultadoAnalisis();
+                assertEquals(veredicto, grupo.analizaCurso(paralelo), "umbral " + umbral);
+                comprobarIguales(secuencial, paralelo);
+            }
+
+            // La vista por alumno se actualiza con los cambios antes de repartir los tramos
+            for (int c = 0; c < 2_000; c++) {
+                grupo.getAsignatura(azar.nextInt(5)).cambiarNota(azar.nextInt(101) / 10.0,
+                        azar.nextInt(grupo.getTotalAlumnos()));
+            }
+            ResultadoAnalisis paralelo = new ResultadoAnalisis();
+            grupo.analizaCurso(paralelo);
+            grupo.desactivarParalelismo();
+            ResultadoAnalisis despues = new ResultadoAnalisis();
+            grupo.analizaCurso(despues);
+            comprobarIguales(despues, paralelo);
+            assertEquals(recontar(grupo), despues.getFenomenal() + "/" + despues.getRepaso() + "/" + despues.getMal());
+        } finally {
+            grupo.desactivarParalelismo();
+            pool.shutdown();
+        }
+    }
+
+    private static void comprobarIguales(ResultadoAnalisis esperado, ResultadoAnalisis resultado) {
+        assertEquals(esperado.getVeredicto(), resultado.getVeredicto());
+        assertEquals(esperado.getFenomenal(), resultado.getFenomenal());
+        assertEquals(esperado.getRepaso(), resultado.getRepaso());
+        assertEquals(esperado.getMal(), resultado.getMal());
+        assertEquals(esperado.getTotal(), resultado.getTotal());
+    }
+
+    /**
+     * Clasifica la media de cada alumno activo calculada con dameAlumnoMedia.
+     */
+    private static String recontar(Grupo grupo) {
+        int fenomenal = 0;
+        int repaso = 0;
+        int mal = 0;
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (grupo.alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            double media = grupo.dameAlumnoMedia(i);
+            if (media > 7) {
+                fenomenal++;
+            } else if (media >= 5) {
+                repaso++;
+            } else {
+                mal++;
+            }
+        }
+        return fenomenal + "/" + repaso + "/" + mal;
+    }
+
+    private static Grupo grupoAleatorio(Random azar, int alumnos, int asignaturas) {
+        String[] nombres = new String[alumnos];
+        for (int i = 0; i < alumnos; i++) {
+            nombres[i] = "A" + i;
+        }
+        Asignatura[] lista = new Asignatura[asignaturas];
+        for (int j = 0; j < asignaturas; j++) {
+            double[] notas = new double[alumnos];
+            for (int i = 0; i < alumnos; i++) {
+                notas[i] = azar.nextInt(101) / 10.0;
+            }
+            lista[j] = new Asignatura("S" + j, notas);
+        }
+        return new Grupo("G", nombres, lista);
+    }
+}
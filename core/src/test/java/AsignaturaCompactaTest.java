@@ -0,0 +1,48 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que una asignatura compacta sigue guardando décimas al añadir alumnos
+ * y que sus estadísticas corresponden a las notas redondeadas.
+ */
+class AsignaturaCompactaTest {
+
+    @Test
+    void sigueCompactaAlAñadirNotas() {
+        Asignatura asignatura = new Asignatura("S", new double[] {4.0, 6.5, 8.25});
+        asignatura.compactar();
+        asignatura.media(); // Deja las estadísticas calculadas para que se actualicen.
+        for (int i = 0; i < 100; i++) {
+            asignatura.añadirNota((i % 101) / 10.0 + 0.04);
+        }
+        asignatura.añadirNota(2.26);
+
+        assertInstanceOf(NotasCompactas.class, asignatura.getAlmacen());
+        assertEquals(104, asignatura.getAlmacen().longitud());
+        assertEquals(8.3, asignatura.notaAlumno(2));
+        assertEquals(2.3, asignatura.notaAlumno(103));
+
+        Asignatura copia = new Asignatura("S", asignatura.ordenar());
+        assertEquals(copia.media(), asignatura.media(), 1e-9);
+        assertEquals(copia.minimo(), asignatura.minimo());
+        assertEquals(copia.maximo(), asignatura.maximo());
+        assertEquals(copia.totalSuspensos(), asignatura.totalSuspensos());
+    }
+
+    @Test
+    void grupoCompactoAlDarDeAlta() {
+        Grupo grupo = new Grupo("G", new String[] {"A", "B"}, new Asignatura[] {
+            new Asignatura("X", new double[] {5.0, 7.0}),
+            new Asignatura("Y", new double[] {3.0, 9.0})
+        });
+        grupo.compactarNotas();
+        assertEquals(2, grupo.añadirAlumno("C", 6.14, 1.0));
+
+        assertInstanceOf(NotasCompactas.class, grupo.getAsignatura(0).getAlmacen());
+        assertInstanceOf(NotasCompactas.class, grupo.getAsignatura(1).getAlmacen());
+        assertEquals(6.1, grupo.getAsignatura(0).notaAlumno(2));
+        assertEquals((5.0 + 7.0 + 6.1) / 3, grupo.getAsignatura(0).media(), 1e-9);
+    }
+}
@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que las consultas de AsignaturaConcurrente nunca ven un cambio a medio aplicar
+ * mientras otros hilos cambian notas.
+ */
+class AsignaturaConcurrenteTest {
+
+    private static final int ALUMNOS = Asignatura.UMBRAL_CUANTILES_EXACTOS * 2; // Cuantiles aproximados.
+    private static final int ESCRITORES = 3;
+    private static final int LECTORES = 3;
+    private static final int CAMBIOS = 20_000;
+
+    @Test
+    void lectoresVenSiempreUnEstadoCompleto() throws Exception {
+        // Cada pareja de alumnos tiene siempre un 2 y un 8, así que la media es 5 y la mitad
+        // de los alumnos aprueba, sea cual sea el orden de los cambios.
+        double[] notas = new double[ALUMNOS];
+        for (int i = 0; i < ALUMNOS; i += 2) {
+            notas[i] = 2;
+            notas[i + 1] = 8;
+        }
+        AsignaturaConcurrente asignatura = new AsignaturaConcurrente("S", notas);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(ESCRITORES + LECTORES);
+        List<Future<?>> tareas = new ArrayList<>();
+        try {
+            for (int h = 0; h < ESCRITORES; h++) {
+                Random azar = new Random(h);
+                tareas.add(hilos.submit(() -> {
+                    for (int c = 0; c < CAMBIOS; c++) {
+                        int pareja = azar.nextInt(ALUMNOS / 2) * 2;
+                        double nota = azar.nextBoolean() ? 2 : 8;
+                        asignatura.cambiarNotas(new int[] {pareja, pareja + 1}, new double[] {nota, 10 - nota});
+                        if (c % 1_000 == 0) {
+                            asignatura.setResolucionCuantiles(0.01); // Los lectores vuelven a construirlos.
+                        }
+                    }
+                }));
+            }
+            for (int h = 0; h < LECTORES; h++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int c = 0; c < CAMBIOS / 10; c++) {
+                        comprobar(asignatura);
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(2, TimeUnit.MINUTES); // Propaga los fallos de los lectores.
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        comprobar(asignatura);
+    }
+
+    private static void comprobar(AsignaturaConcurrente asignatura) {
+        Resumen resumen = asignatura.resumen();
+        assertEquals(ALUMNOS, resumen.getTotalNotas());
+        assertEquals(5.0, resumen.getMedia(), 1e-9);
+        assertEquals(2.0, resumen.getMinimo());
+        assertEquals(8.0, resumen.getMaximo());
+        assertEquals(ALUMNOS / 2, resumen.getAprobados());
+        assertEquals(ALUMNOS / 2, resumen.getSuspensos());
+        assertEquals(ALUMNOS / 2, asignatura.totalSuspensos());
+        assertEquals(ALUMNOS / 2, asignatura.dameSuspensos().length);
+        assertEquals(ALUMNOS / 2, asignatura.estadisticas().notasEn(20));
+        assertEquals(2.0, asignatura.cuantil(0.5));
+        assertEquals(8.0, asignatura.cuantil(0.5 + 1.0 / ALUMNOS));
+
+        ResultadoAnalisis resultado = new ResultadoAnalisis();
+        asignatura.analizaGrupo(resultado);
+        assertEquals(ALUMNOS, resultado.getTotal());
+    }
+}
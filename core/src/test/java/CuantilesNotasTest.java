@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que los cuantiles aproximados están a como mucho media resolución del cuantil
+ * exacto, también después de cambiar notas, y que con pocas notas son exactos.
+ */
+class CuantilesNotasTest {
+
+    private static final double[] FRACCIONES = {0, 0.001, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    void errorAcotadoPorLaResolucion() {
+        Random azar = new Random(17);
+        double[] notas = new double[Asignatura.UMBRAL_CUANTILES_EXACTOS * 10];
+        for (int i = 0; i < notas.length; i++) {
+            notas[i] = azar.nextDouble() * 10;
+        }
+        notas[0] = 0;
+        notas[1] = 10;
+        for (double resolucion : new double[] {1, 0.3, 0.1, 0.01, 0.001}) {
+            Asignatura asignatura = new Asignatura("S", notas.clone());
+            asignatura.setResolucionCuantiles(resolucion);
+            comprobar(asignatura, resolucion);
+
+            // La distribución ya construida se mantiene con los cambios de nota y las altas
+            for (int c = 0; c < 1_000; c++) {
+                asignatura.cambiarNota(azar.nextDouble() * 10, azar.nextInt(notas.length));
+            }
+            for (int c = 0; c < 100; c++) {
+                asignatura.añadirNota(azar.nextDouble() * 10);
+            }
+            comprobar(asignatura, resolucion);
+        }
+    }
+
+    @Test
+    void exactosConPocasNotas() {
+        Random azar = new Random(3);
+        double[] notas = new double[Asignatura.UMBRAL_CUANTILES_EXACTOS];
+        for (int i = 0; i < notas.length; i++) {
+            notas[i] = azar.nextDouble() * 10;
+        }
+        Asignatura asignatura = new Asignatura("S", notas);
+        asignatura.setResolucionCuantiles(1);
+        for (double q : FRACCIONES) {
+            assertEquals(exacto(asignatura, q), asignatura.cuantil(q), "q = " + q);
+        }
+    }
+
+    @Test
+    void fraccionesNoValidas() {
+        Asignatura asignatura = new Asignatura("S", new double[] {1, 2, 3});
+        assertEquals(-1, asignatura.cuantil(-0.1));
+        assertEquals(-1, asignatura.cuantil(1.1));
+        assertEquals(-1, asignatura.cuantil(Double.NaN));
+    }
+
+    private static void comprobar(Asignatura asignatura, double resolucion) {
+        for (double q : FRACCIONES) {
+            double error = Math.abs(asignatura.cuantil(q) - exacto(asignatura, q));
+            assertTrue(error <= resolucion / 2 + 1e-9, "resolución " + resolucion + ", q = " + q + ": error " + error);
+        }
+    }
+
+    /**
+     * Cuantil exacto: la nota en la posición ceil(q * n) de las notas ordenadas.
+     */
+    private static double exacto(Asignatura asignatura, double q) {
+        int total = asignatura.getAlmacen().longitud();
+        double[] ordenadas = new double[total];
+        for (int i = 0; i < total; i++) {
+            ordenadas[i] = asignatura.notaAlumno(i);
+        }
+        Arrays.sort(ordenadas);
+        return ordenadas[Math.max(1, (int) Math.ceil(q * total)) - 1];
+    }
+}
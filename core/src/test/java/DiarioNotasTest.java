@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Comprueba que al abrir el diario se reproducen los cambios confirmados y que un final
+ * incompleto o dañado (escritura interrumpida) se descarta sin perder los registros anteriores.
+ */
+class DiarioNotasTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reproduceLosCambiosConfirmados() throws IOException {
+        escribirTresCambios();
+        try (DiarioNotas diario = DiarioNotas.abrir(directorio)) {
+            assertEquals(3, diario.getRegistrosRecuperados());
+            Grupo grupo = diario.getGrupo(0);
+            assertEquals(9.5, grupo.getAsignatura(0).notaAlumno(0));
+            assertEquals(1.5, grupo.getAsignatura(1).notaAlumno(2));
+            assertEquals(7.0, grupo.getAsignatura(0).notaAlumno(1));
+        }
+    }
+
+    @Test
+    void descartaUnRegistroIncompleto() throws IOException {
+        escribirTresCambios();
+        Path fichero = ficheroDiario();
+        long tamano = Files.size(fichero);
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.WRITE)) {
+            canal.truncate(tamano - 10); // El último registro queda a medias.
+        }
+
+        try (DiarioNotas diario = DiarioNotas.abrir(directorio)) {
+            assertEquals(2, diario.getRegistrosRecuperados());
+            assertEquals(tamano - DiarioNotas.TAMANO_REGISTRO, Files.size(fichero));
+            Grupo grupo = diario.getGrupo(0);
+            assertEquals(9.5, grupo.getAsignatura(0).notaAlumno(0));
+            assertEquals(1.5, grupo.getAsignatura(1).notaAlumno(2));
+            assertEquals(3.0, grupo.getAsignatura(0).notaAlumno(1)); // Nota de la instantánea.
+
+            // El diario sigue aceptando cambios detrás del último registro válido
+            grupo.getAsignatura(0).cambiarNota(8.0, 1);
+            diario.confirmar();
+        }
+        try (DiarioNotas diario = DiarioNotas.abrir(directorio)) {
+            assertEquals(3, diario.getRegistrosRecuperados());
+            assertEquals(8.0, diario.getGrupo(0).getAsignatura(0).notaAlumno(1));
+        }
+    }
+
+    @Test
+    void descartaDesdeUnRegistroDañado() throws IOException {
+        escribirTresCambios();
+        Path fichero = ficheroDiario();
+        byte[] bytes = Files.readAllBytes(fichero);
+        bytes[DiarioNotas.TAMANO_CABECERA + DiarioNotas.TAMANO_REGISTRO + 5] ^= 1; // Segundo registro.
+        Files.write(fichero, bytes);
+
+        try (DiarioNotas diario = DiarioNotas.abrir(directorio)) {
+            assertEquals(1, diario.getRegistrosRecuperados());
+            Grupo grupo = diario.getGrupo(0);
+            assertEquals(9.5, grupo.getAsignatura(0).notaAlumno(0));
+            assertEquals(4.0, grupo.getAsignatura(1).notaAlumno(2));
+            assertEquals(3.0, grupo.getAsignatura(0).notaAlumno(1));
+        }
+    }
+
+    /**
+     * Sigue un grupo nuevo y confirma tres cambios de nota, uno por registro.
+     */
+    private void escribirTresCambios() throws IOException {
+        Grupo grupo = new Grupo("G", new String[] {"Ana", "Berta", "Carlos"}, new Asignatura[] {
+            new Asignatura("Mates", new double[] {5.0, 3.0, 6.0}),
+            new Asignatura("Física", new double[] {2.0, 8.0, 4.0})
+        });
+        try (DiarioNotas diario = DiarioNotas.abrir(directorio)) {
+            diario.seguir(grupo);
+            grupo.getAsignatura(0).cambiarNota(9.5, 0);
+            grupo.getAsignatura(1).cambiarNota(1.5, 2);
+            grupo.getAsignatura(0).cambiarNota(7.0, 1);
+            diario.confirmar();
+        }
+    }
+
+    private Path ficheroDiario() throws IOException {
+        try (DirectoryStream<Path> ficheros = Files.newDirectoryStream(directorio, "diario-*.log")) {
+            return ficheros.iterator().next();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Comprueba que la importación acepta las filas correctas y descarta, con su motivo,
+ * las que no lo son.
+ */
+class ImportadorCsvTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void rechazaFilasMalFormadas() throws IOException {
+        ResultadoImportacion resultado = importar(
+                "Alumno,Mates,Física\n"
+                + "Ana,5,7.5\n"
+                + ",4,4\n"               // Sin nombre.
+                + "Berta,6\n"            // Falta una nota.
+                + "Carlos,6,7,8\n"       // Sobra una columna.
+                + "Diana,10.5,3\n"       // Nota mayor que 10.
+                + "Elena,-1,3\n"         // Nota negativa.
+                + "Félix,cinco,3\n"      // No es un número.
+                + "Gema,6,\n"            // Nota vacía.
+                + "Hugo,6,7 8\n"         // Basura tras la nota.
+                + "Irene, 9 , 10\n");
+        assertEquals(2, resultado.getFilasAceptadas());
+        assertEquals(8, resultado.getFilasRechazadas());
+        List<String> errores = resultado.getErrores();
+        assertEquals(8, errores.size());
+        assertTrue(errores.get(0).startsWith("Línea 3: nombre de alumno vacío"), errores.get(0));
+        assertTrue(errores.get(1).startsWith("Línea 4: faltan notas"), errores.get(1));
+        assertTrue(errores.get(2).startsWith("Línea 5: sobran columnas"), errores.get(2));
+        assertTrue(errores.get(3).startsWith("Línea 6: nota incorrecta en la columna 2"), errores.get(3));
+        assertTrue(errores.get(7).startsWith("Línea 10: nota incorrecta en la columna 3"), errores.get(7));
+
+        Grupo grupo = resultado.getGrupo();
+        assertEquals(2, grupo.getTotalAlumnos());
+        assertEquals("Ana", grupo.getAlumno(0));
+        assertEquals("Irene", grupo.getAlumno(1));
+        assertEquals(7.5, grupo.getAsignatura(1).notaAlumno(0));
+        assertEquals(10.0, grupo.getAsignatura(1).notaAlumno(1));
+    }
+
+    @Test
+    void separadorYDecimalesConComa() throws IOException {
+        ResultadoImportacion resultado = importar(
+                "\uFEFFAlumno;Mates;Física\r\n"
+                + "Ana;5,25;7\r\n"
+                + "\r\n"
+                + "Berta;6;7,5;1\r\n"
+                + "Carlos;0;10");
+        assertEquals(2, resultado.getFilasAceptadas());
+        assertEquals(1, resultado.getFilasRechazadas());
+        Grupo grupo = resultado.getGrupo();
+        assertEquals("Física", grupo.getAsignatura(1).getNombreAsignatura());
+        assertEquals(5.25, grupo.getAsignatura(0).notaAlumno(0));
+        assertEquals("Carlos", grupo.getAlumno(1));
+        assertEquals(10.0, grupo.getAsignatura(1).notaAlumno(1));
+    }
+
+    @Test
+    void celdasEntreComillas() throws IOException {
+        ResultadoImportacion resultado = importar(
+                "Alumno,\"Física, química\",Mates\n"
+                + "\"Pérez, Ana\",\"7,5\",6\n"
+                + "\"Luis \"\"el Rubio\"\"\", \"8\" ,9.25\n"
+                + "\"Sin cerrar,5,5\n"          // Comillas sin cerrar.
+                + "Eva,\"5,5\n"                 // Nota con comillas sin cerrar.
+                + "Juan,\"cinco\",5\n");       // Entre comillas, pero no es un número.
+        assertEquals(2, resultado.getFilasAceptadas());
+        assertEquals(3, resultado.getFilasRechazadas());
+        assertTrue(resultado.getErrores().get(0).startsWith("Línea 4: comillas sin cerrar"),
+                resultado.getErrores().get(0));
+
+        Grupo grupo = resultado.getGrupo();
+        assertEquals(2, grupo.getTotalAsignaturas());
+        assertEquals("Física, química", grupo.getAsignatura(0).getNombreAsignatura());
+        assertEquals("Pérez, Ana", grupo.getAlumno(0));
+        assertEquals(7.5, grupo.getAsignatura(0).notaAlumno(0));
+        assertEquals("Luis \"el Rubio\"", grupo.getAlumno(1));
+        assertEquals(8.0, grupo.getAsignatura(0).notaAlumno(1));
+        assertEquals(9.25, grupo.getAsignatura(1).notaAlumno(1));
+    }
+
+    @Test
+    void cabeceraConComillasSinCerrar() throws IOException {
+        Path fichero = directorio.resolve("grupo.csv");
+        Files.write(fichero, "Alumno,\"Mates\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ImportadorCsv.importar("G", fichero));
+    }
+
+    @Test
+    void sinCabecera() throws IOException {
+        Path fichero = directorio.resolve("vacio.csv");
+        Files.write(fichero, new byte[0]);
+        assertThrows(IOException.class, () -> ImportadorCsv.importar("G", fichero));
+    }
+
+    private ResultadoImportacion importar(String contenido) throws IOException {
+        Path fichero = directorio.resolve("grupo.csv");
+        Files.write(fichero, contenido.getBytes(StandardCharsets.UTF_8));
+        return ImportadorCsv.importar("G", fichero);
+    }
+}
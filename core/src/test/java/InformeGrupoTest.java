@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que InformeGrupo escribe los números igual que String.format("%-15.2f"),
+ * que es lo que hacía Grupo antes de escribir los informes sin Formatter.
+ */
+class InformeGrupoTest {
+
+    private static final double[] FRONTERAS = {
+        4.074999999999999, 4.4449999999999985, 9.994999999995, 2.675, 0.125, 1.005, 1.015,
+        0.005, 0.015, 0.045, 9.995, 10.0, 0.0, -0.0, -2.675, -0.001, 7.0 / 3, 20.0 / 3,
+        1234567.125, 1e13 + 0.005, 1e15, 1e20, -1e20, Double.MIN_VALUE, Double.MAX_VALUE,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    @Test
+    void fronteras() throws IOException {
+        comparar(FRONTERAS);
+    }
+
+    @Test
+    void mediasAleatorias() throws IOException {
+        // Medias realistas: sumas de décimas divididas entre el número de asignaturas.
+        Random azar = new Random(2023);
+        double[] medias = new double[200_000];
+        for (int i = 0; i < medias.length; i++) {
+            int asignaturas = 1 + azar.nextInt(12);
+            double suma = 0;
+            for (int j = 0; j < asignaturas; j++) {
+                suma += azar.nextInt(101) / 10.0;
+            }
+            medias[i] = suma / asignaturas;
+        }
+        comparar(medias);
+    }
+
+    @Test
+    void cercaDeLaMitad() throws IOException {
+        // Valores a pocos ulp de la mitad entre dos centésimas, en los dos sentidos.
+        double[] valores = new double[4 * 2000];
+        int k = 0;
+        for (int c = 0; c < 2000; c++) {
+            double mitad = (c + 0.5) / 100;
+            valores[k++] = mitad;
+            valores[k++] = Math.nextUp(mitad);
+            valores[k++] = Math.nextDown(mitad);
+            valores[k++] = Math.nextDown(Math.nextDown(mitad));
+        }
+        comparar(valores);
+    }
+
+    /**
+     * Escribe los valores como medias de los alumnos y compara cada columna con String.format.
+     */
+    private static void comparar(double[] valores) throws IOException {
+        String[] nombres = new String[valores.length];
+        for (int i = 0; i < nombres.length; i++) {
+            nombres[i] = "A" + i;
+        }
+        Grupo grupo = new Grupo("G", nombres, new Asignatura[] {new Asignatura("S", new double[valores.length])});
+        StringBuilder texto = new StringBuilder();
+        new InformeGrupo(texto).mediasAlumnos(grupo, valores);
+        String[] lineas = texto.toString().split("\n");
+        String medias = lineas[lineas.length - 1];
+        int desde = 0;
+        for (double valor : valores) {
+            String esperado = String.format("%-15.2f", valor);
+            int hasta = Math.min(medias.length(), desde + esperado.length());
+            assertEquals(esperado, medias.substring(desde, hasta), "valor " + valor);
+            desde = hasta;
+        }
+        assertEquals(medias.length(), desde);
+    }
+}
@@ -0,0 +1,174 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Comprueba que una instantánea devuelve el mismo grupo en cada modo de almacenamiento
+ * y que se rechazan los ficheros con una versión o una cabecera que no se conocen.
+ */
+class InstantaneaGrupoTest {
+
+    private static final String[] ALUMNOS = {"Ana", "Berta", "Carlos", "Diana", "Elena", "Félix"};
+    private static final String[] ASIGNATURAS = {"Mates", "Física", "Lengua"};
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void almacenesPorAsignatura() throws IOException {
+        Grupo grupo = nuevoGrupo();
+        grupo.getAsignatura(1).compactar();
+        grupo.añadirAlumno("Gema", 6.5, 7.25, 8.0); // La asignatura 0 pasa a segmentos.
+        assertTrue(grupo.eliminarAlumno(2));
+
+        Grupo cargado = guardarYCargar(grupo);
+        assertInstanceOf(NotasSegmentadas.class, cargado.getAsignatura(0).getAlmacen());
+        assertInstanceOf(NotasCompactas.class, cargado.getAsignatura(1).getAlmacen());
+        assertInstanceOf(NotasSegmentadas.class, cargado.getAsignatura(2).getAlmacen());
+        assertFalse(cargado.usaMatrizContigua());
+        comprobarIguales(grupo, cargado);
+    }
+
+    @Test
+    void compacto() throws IOException {
+        Grupo grupo = nuevoGrupo();
+        grupo.compactarNotas();
+        assertTrue(grupo.eliminarAlumno(0));
+
+        Grupo cargado = guardarYCargar(grupo);
+        for (int j = 0; j < ASIGNATURAS.length; j++) {
+            assertInstanceOf(NotasCompactas.class, cargado.getAsignatura(j).getAlmacen());
+        }
+        comprobarIguales(grupo, cargado);
+    }
+
+    @Test
+    void matrizContigua() throws IOException {
+        Grupo grupo = nuevoGrupo();
+        assertTrue(grupo.usarMatrizContigua());
+        assertTrue(grupo.eliminarAlumno(5));
+
+        Grupo cargado = guardarYCargar(grupo);
+        assertTrue(cargado.usaMatrizContigua());
+        comprobarIguales(grupo, cargado);
+    }
+
+    @Test
+    void proyectadoSeGuardaEntero() throws IOException {
+        Path notas = directorio.resolve("notas.bin");
+        Grupo grupo = Grupo.abrirMapeado("G", ALUMNOS.clone(), ASIGNATURAS, notas);
+        for (int i = 0; i < ALUMNOS.length; i++) {
+            for (int j = 0; j < ASIGNATURAS.length; j++) {
+                grupo.getAsignatura(j).cambiarNota(nota(i, j), i);
+            }
+        }
+
+        Path fichero = directorio.resolve("grupo.snap");
+        InstantaneaGrupo.guardar(grupo, fichero);
+        Files.delete(notas);
+        Grupo cargado = InstantaneaGrupo.cargar(fichero);
+        assertFalse(Files.exists(notas)); // La instantánea no depende del fichero proyectado.
+        for (int j = 0; j < ASIGNATURAS.length; j++) {
+            assertInstanceOf(NotasArray.class, cargado.getAsignatura(j).getAlmacen());
+        }
+        comprobarIguales(grupo, cargado);
+    }
+
+    @Test
+    void rechazaVersionesDesconocidas() throws IOException {
+        Path fichero = directorio.resolve("grupo.snap");
+        InstantaneaGrupo.guardar(nuevoGrupo(), fichero);
+        for (int version : new int[] {0, InstantaneaGrupo.VERSION + 1, -1}) {
+            escribirInt(fichero, 4, version);
+            IOException error = assertThrows(IOException.class, () -> InstantaneaGrupo.cargar(fichero));
+            assertTrue(error.getMessage().contains("Versión"), error.getMessage());
+        }
+    }
+
+    @Test
+    void rechazaCabecerasNoValidas() throws IOException {
+        Path fichero = directorio.resolve("grupo.snap");
+        InstantaneaGrupo.guardar(nuevoGrupo(), fichero);
+        byte[] original = Files.readAllBytes(fichero);
+
+        escribirInt(fichero, 0, 0x12345678); // Número mágico.
+        assertThrows(IOException.class, () -> InstantaneaGrupo.cargar(fichero));
+
+        Files.write(fichero, modificar(original, 8, InstantaneaGrupo.MODO_COMPACTO)); // Solo en v1 y v2.
+        assertThrows(IOException.class, () -> InstantaneaGrupo.cargar(fichero));
+
+        Files.write(fichero, Arrays.copyOf(original, original.length - 10)); // Truncado.
+        assertThrows(IOException.class, () -> InstantaneaGrupo.cargar(fichero));
+    }
+
+    private static double nota(int alumno, int asignatura) {
+        return ((alumno * 7 + asignatura * 13) % 101) / 10.0;
+    }
+
+    private static Grupo nuevoGrupo() {
+        Asignatura[] asignaturas = new Asignatura[ASIGNATURAS.length];
+        for (int j = 0; j < asignaturas.length; j++) {
+            double[] notas = new double[ALUMNOS.length];
+            for (int i = 0; i < notas.length; i++) {
+                notas[i] = nota(i, j);
+            }
+            asignaturas[j] = new Asignatura(ASIGNATURAS[j], notas);
+        }
+        return new Grupo("G", ALUMNOS.clone(), asignaturas);
+    }
+
+    private Grupo guardarYCargar(Grupo grupo) throws IOException {
+        Path fichero = directorio.resolve("grupo.snap");
+        InstantaneaGrupo.guardar(grupo, fichero);
+        return InstantaneaGrupo.cargar(fichero);
+    }
+
+    private static void comprobarIguales(Grupo esperado, Grupo grupo) {
+        assertEquals(esperado.getNombreGrupo(), grupo.getNombreGrupo());
+        assertEquals(esperado.getTotalAlumnos(), grupo.getTotalAlumnos());
+        assertEquals(esperado.getTotalAsignaturas(), grupo.getTotalAsignaturas());
+        assertEquals(esperado.getTotalBajas(), grupo.getTotalBajas());
+        for (int i = 0; i < esperado.getTotalAlumnos(); i++) {
+            assertEquals(esperado.getAlumno(i), grupo.getAlumno(i));
+            assertEquals(esperado.alumnoDadoDeBaja(i), grupo.alumnoDadoDeBaja(i));
+        }
+        for (int j = 0; j < esperado.getTotalAsignaturas(); j++) {
+            Asignatura a = esperado.getAsignatura(j);
+            Asignatura b = grupo.getAsignatura(j);
+            assertEquals(a.getNombreAsignatura(), b.getNombreAsignatura());
+            double[] notasA = new double[a.getAlmacen().longitud()];
+            double[] notasB = new double[b.getAlmacen().longitud()];
+            for (int i = 0; i < notasA.length; i++) {
+                notasA[i] = a.notaAlumno(i);
+            }
+            for (int i = 0; i < notasB.length; i++) {
+                notasB[i] = b.notaAlumno(i);
+            }
+            assertArrayEquals(notasA, notasB);
+        }
+    }
+
+    private static void escribirInt(Path fichero, int posicion, int valor) throws IOException {
+        byte[] bytes = Files.readAllBytes(fichero);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(posicion, valor);
+        Files.write(fichero, bytes);
+    }
+
+    private static byte[] modificar(byte[] bytes, int posicion, byte valor) {
+        byte[] copia = bytes.clone();
+        copia[posicion] = valor;
+        return copia;
+    }
+}
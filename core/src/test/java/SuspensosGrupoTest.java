@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba los conjuntos de suspensos que Grupo calcula con las máscaras por bits
+ * contra un recuento alumno a alumno.
+ */
+class SuspensosGrupoTest {
+
+    @Test
+    void contadoresPorBitsComoElRecuento() {
+        Random azar = new Random(21);
+        for (int alumnos : new int[] {1, 63, 64, 65, 130, 1000}) {
+            for (int asignaturas : new int[] {1, 2, 3, 4, 7, 8, 9, 17}) {
+                Grupo grupo = grupoAleatorio(azar, alumnos, asignaturas);
+                comprobar(grupo);
+
+                // Las máscaras ya construidas se actualizan con los cambios y las bajas
+                for (int c = 0; c < alumnos; c++) {
+                    grupo.getAsignatura(azar.nextInt(asignaturas)).cambiarNota(azar.nextInt(101) / 10.0,
+                            azar.nextInt(alumnos));
+                }
+                if (alumnos > 1) {
+                    grupo.eliminarAlumno(azar.nextInt(alumnos));
+                }
+                comprobar(grupo);
+            }
+        }
+    }
+
+    private static Grupo grupoAleatorio(Random azar, int alumnos, int asignaturas) {
+        String[] nombres = new String[alumnos];
+        for (int i = 0; i < alumnos; i++) {
+            nombres[i] = "A" + i;
+        }
+        Asignatura[] lista = new Asignatura[asignaturas];
+        for (int j = 0; j < asignaturas; j++) {
+            double[] notas = new double[alumnos];
+            for (int i = 0; i < alumnos; i++) {
+                // Notas alrededor del 5 para que haya alumnos con cualquier número de suspensos
+                notas[i] = Math.min(10, Math.max(0, 5 + (azar.nextInt(61) - 30) / 10.0));
+            }
+            lista[j] = new Asignatura("S" + j, notas);
+        }
+        return new Grupo("G", nombres, lista);
+    }
+
+    private static void comprobar(Grupo grupo) {
+        int asignaturas = grupo.getTotalAsignaturas();
+        for (int n = -1; n <= asignaturas + 1; n++) {
+            assertEquals(contarMasDe(grupo, n), grupo.alumnosConSuspensosMasDe(n), "más de " + n);
+        }
+        int[] todas = new int[asignaturas];
+        for (int j = 0; j < asignaturas; j++) {
+            todas[j] = j;
+        }
+        assertEquals(contarMasDe(grupo, asignaturas - 1), grupo.suspensosEnTodas(todas));
+        assertEquals(contarMasDe(grupo, 0), grupo.suspensosEnAlguna(todas));
+    }
+
+    /**
+     * Recorre las notas de cada alumno activo y cuenta sus suspensos.
+     */
+    private static BitSet contarMasDe(Grupo grupo, int n) {
+        BitSet esperado = new BitSet();
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (grupo.alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            int suspensos = 0;
+            for (int j = 0; j < grupo.getTotalAsignaturas(); j++) {
+                suspensos += grupo.getAsignatura(j).notaAlumno(i) < 5 ? 1 : 0;
+            }
+            if (suspensos > n) {
+                esperado.set(i);
+            }
+        }
+        return esperado;
+    }
+}
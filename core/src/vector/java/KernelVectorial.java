@@ -0,0 +1,105 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementación de las reducciones con la Vector API (jdk.incubator.vector): cada vuelta
+ * del bucle procesa tantas notas como carriles tiene el registro SIMD preferido de la máquina.
+ * Solo se compila con el perfil "vector" de Maven y necesita --add-modules jdk.incubator.vector
+ * también al ejecutar; se elige con -Dnotas.kernel=vectorial.
+ * La suma se hace por carriles, así que puede diferir de la de los otros kernels en el redondeo.
+ */
+class KernelVectorial implements KernelNotas {
+
+    private static final VectorSpecies<Double> ESPECIE = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double suma(double[] notas, int desde, int hasta) {
+        DoubleVector suma = DoubleVector.zero(ESPECIE);
+        int i = desde;
+        for (int limite = desde + ESPECIE.loopBound(hasta - desde); i < limite; i += ESPECIE.length()) {
+            suma = suma.add(DoubleVector.fromArray(ESPECIE, notas, i));
+        }
+        double total = suma.reduceLanes(VectorOperators.ADD);
+        for (; i < hasta; i++) {
+            total += notas[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double minimo(double[] notas, int desde, int hasta) {
+        DoubleVector minimo = DoubleVector.broadcast(ESPECIE, Double.MAX_VALUE);
+        int i = desde;
+        for (int limite = desde + ESPECIE.loopBound(hasta - desde); i < limite; i += ESPECIE.length()) {
+            minimo = minimo.min(DoubleVector.fromArray(ESPECIE, notas, i));
+        }
+        double total = minimo.reduceLanes(VectorOperators.MIN);
+        for (; i < hasta; i++) {
+            total = Math.min(total, notas[i]);
+        }
+        return total;
+    }
+
+    @Override
+    public double maximo(double[] notas, int desde, int hasta) {
+        DoubleVector maximo = DoubleVector.broadcast(ESPECIE, -Double.MAX_VALUE);
+        int i = desde;
+        for (int limite = desde + ESPECIE.loopBound(hasta - desde); i < limite; i += ESPECIE.length()) {
+            maximo = maximo.max(DoubleVector.fromArray(ESPECIE, notas, i));
+        }
+        double total = maximo.reduceLanes(VectorOperators.MAX);
+        for (; i < hasta; i++) {
+            total = Math.max(total, notas[i]);
+        }
+        return total;
+    }
+
+    @Override
+    public int contarMenores(double[] notas, int desde, int hasta, double limite) {
+        int total = 0;
+        int i = desde;
+        for (int fin = desde + ESPECIE.loopBound(hasta - desde); i < fin; i += ESPECIE.length()) {
+            total += DoubleVector.fromArray(ESPECIE, notas, i).compare(VectorOperators.LT, limite).trueCount();
+        }
+        for (; i < hasta; i++) {
+            total += notas[i] < limite ? 1 : 0;
+        }
+        return total;
+    }
+
+    @Override
+    public void reducir(double[] notas, int desde, int hasta, double limite, ReduccionNotas resultado) {
+        DoubleVector suma = DoubleVector.zero(ESPECIE);
+        DoubleVector cuadrados = DoubleVector.zero(ESPECIE);
+        DoubleVector minimo = DoubleVector.broadcast(ESPECIE, Double.MAX_VALUE);
+        DoubleVector maximo = DoubleVector.broadcast(ESPECIE, -Double.MAX_VALUE);
+        int menores = 0;
+        int i = desde;
+        for (int fin = desde + ESPECIE.loopBound(hasta - desde); i < fin; i += ESPECIE.length()) {
+            DoubleVector bloque = DoubleVector.fromArray(ESPECIE, notas, i);
+            suma = suma.add(bloque);
+            cuadrados = cuadrados.add(bloque.mul(bloque));
+            minimo = minimo.min(bloque);
+            maximo = maximo.max(bloque);
+            menores += bloque.compare(VectorOperators.LT, limite).trueCount();
+        }
+        double totalSuma = suma.reduceLanes(VectorOperators.ADD);
+        double totalCuadrados = cuadrados.reduceLanes(VectorOperators.ADD);
+        double totalMinimo = Math.min(resultado.minimo, minimo.reduceLanes(VectorOperators.MIN));
+        double totalMaximo = Math.max(resultado.maximo, maximo.reduceLanes(VectorOperators.MAX));
+        for (; i < hasta; i++) {
+            double nota = notas[i];
+            totalSuma += nota;
+            totalCuadrados += nota * nota;
+            menores += nota < limite ? 1 : 0;
+            totalMinimo = Math.min(totalMinimo, nota);
+            totalMaximo = Math.max(totalMaximo, nota);
+        }
+        resultado.suma += totalSuma;
+        resultado.sumaCuadrados += totalCuadrados;
+        resultado.menores += menores;
+        resultado.minimo = totalMinimo;
+        resultado.maximo = totalMaximo;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Interfaz que representa el lugar donde se guardan las notas de una asignatura.
+ * Permite que una asignatura guarde sus notas en su propio array o que sea
+ * una vista sobre un almacenamiento compartido, como la matriz de un grupo.
+ */
+public interface AlmacenNotas {
+
+    /**
+     * @return Número de alumnos con nota.
+     */
+    int longitud();
+
+    /**
+     * Devuelve la nota de un alumno (el índice debe ser válido).
+     * @param alumno Índice del alumno.
+     * @return Nota del alumno.
+     */
+    double nota(int alumno);
+
+    /**
+     * Cambia la nota de un alumno (el índice debe ser válido).
+     * @param alumno Índice del alumno.
+     * @param nota Nueva nota.
+     */
+    void ponerNota(int alumno, double nota);
+
+    /**
+     * Suma todas las notas.
+     * @return Suma de las notas.
+     */
+    default double suma() {
+        double suma = 0;
+        for (int i = 0; i < longitud(); i++) {
+            suma += nota(i);
+        }
+        return suma;
+    }
+
+    /**
+     * Calcula la nota mínima.
+     * @return Nota mínima o Double.MAX_VALUE si no hay alumnos.
+     */
+    default double minimo() {
+        double minimo = Double.MAX_VALUE;
+        for (int i = 0; i < longitud(); i++) {
+            minimo = Math.min(minimo, nota(i));
+        }
+        return minimo;
+    }
+
+    /**
+     * Calcula la nota máxima.
+     * @return Nota máxima o -Double.MAX_VALUE si no hay alumnos.
+     */
+    default double maximo() {
+        double maximo = -Double.MAX_VALUE;
+        for (int i = 0; i < longitud(); i++) {
+            maximo = Math.max(maximo, nota(i));
+        }
+        return maximo;
+    }
+
+    /**
+     * Cuenta las notas menores que un límite.
+     * @param limite Valor de referencia.
+     * @return Número de notas menores que el límite.
+     */
+    default int contarMenores(double limite) {
+        int total = 0;
+        for (int i = 0; i < longitud(); i++) {
+            if (nota(i) < limite) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Calcula en una sola pasada la suma, la suma de cuadrados, el recuento de notas menores
+     * que un límite, el mínimo y el máximo, y los acumula en un resultado.
+     * @param limite Valor de referencia para el recuento.
+     * @param resultado Resultado donde se acumulan las notas.
+     */
+    default void reducir(double limite, ReduccionNotas resultado) {
+        double suma = 0;
+        double sumaCuadrados = 0;
+        int menores = 0;
+        double minimo = resultado.minimo;
+        double maximo = resultado.maximo;
+        for (int i = 0; i < longitud(); i++) {
+            double nota = nota(i);
+            suma += nota;
+            sumaCuadrados += nota * nota;
+            menores += nota < limite ? 1 : 0;
+            minimo = Math.min(minimo, nota);
+            maximo = Math.max(maximo, nota);
+        }
+        resultado.suma += suma;
+        resultado.sumaCuadrados += sumaCuadrados;
+        resultado.menores += menores;
+        resultado.minimo = minimo;
+        resultado.maximo = maximo;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Árbol de segmentos que mantiene el mínimo y el máximo de las notas de una asignatura.
+ * Consultar el mínimo o el máximo cuesta O(1) y actualizar una nota O(log n).
+ * Las hojas no se copian: se leen directamente del almacén de notas.
+ */
+class ArbolMinMax {
+
+    private final AlmacenNotas notas; // Notas (hojas del árbol).
+    private final double[] minimos; // Mínimo de cada nodo interno (posiciones 1..n-1).
+    private final double[] maximos; // Máximo de cada nodo interno (posiciones 1..n-1).
+    private final int n;            // Número de hojas.
+
+    /**
+     * Construye el árbol recorriendo las notas una vez.
+     * @param notas Almacén de notas (no vacío).
+     */
+    ArbolMinMax(AlmacenNotas notas) {
+        this.notas = notas;
+        this.n = notas.longitud();
+        this.minimos = new double[n];
+        this.maximos = new double[n];
+        for (int k = n - 1; k >= 1; k--) {
+            recalcularNodo(k);
+        }
+    }
+
+    /**
+     * Actualiza el árbol después de que cambie la nota de un alumno.
+     * @param alumno Índice del alumno cuya nota ha cambiado.
+     */
+    void actualizar(int alumno) {
+        for (int k = (n + alumno) / 2; k >= 1; k /= 2) {
+            recalcularNodo(k);
+        }
+    }
+
+    /**
+     * @return Nota mínima.
+     */
+    double minimo() {
+        return n == 1 ? notas.nota(0) : minimos[1];
+    }
+
+    /**
+     * @return Nota máxima.
+     */
+    double maximo() {
+        return n == 1 ? notas.nota(0) : maximos[1];
+    }
+
+    /**
+     * Recalcula un nodo interno a partir de sus dos hijos.
+     * @param k Posición del nodo.
+     */
+    private void recalcularNodo(int k) {
+        int izquierdo = 2 * k;
+        int derecho = izquierdo + 1;
+        minimos[k] = Math.min(minimoNodo(izquierdo), minimoNodo(derecho));
+        maximos[k] = Math.max(maximoNodo(izquierdo), maximoNodo(derecho));
+    }
+
+    private double minimoNodo(int k) {
+        return k >= n ? notas.nota(k - n) : minimos[k];
+    }
+
+    private double maximoNodo(int k) {
+        return k >= n ? notas.nota(k - n) : maximos[k];
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Scanner;
 import java.util.Locale;
 
@@ -8,8 +9,28 @@ import java.util.Locale;
  */
 public class Asignatura {
 
+    /** Número de notas hasta el que los cuantiles se calculan de forma exacta. */
+    static final int UMBRAL_CUANTILES_EXACTOS = 4096;
+
     private String nombreAsignatura; // Nombre de la asignatura.
-    private double[] listaNotas; // Array para almacenar las notas de los alumnos.
+    private AlmacenNotas listaNotas; // Almacén con las notas de los alumnos.
+
+    // Estadísticas mantenidas de forma incremental por cambiarNota.
+    private boolean estadisticasValidas; // Indica si los campos siguientes están al día.
+    private double suma;                 // Suma de las notas.
+    private double compensacion;         // Error acumulado de la suma (suma de Kahan).
+    private double sumaCuadrados;        // Suma de los cuadrados de las notas.
+    private double compensacionCuadrados; // Error acumulado de la suma de cuadrados.
+    private int aprobados;               // Número de notas >= 5.
+    private double notaMinima;           // Nota mínima.
+    private double notaMaxima;           // Nota máxima.
+    private ArbolMinMax arbol;           // Mínimo y máximo tras los cambios (null hasta el primer cambio).
+    private Resumen resumen;             // Último resumen creado (null si hay que crearlo).
+    private CuantilesNotas cuantiles;    // Distribución para los cuantiles aproximados (null hasta usarla).
+    private HistogramaNotas histograma;  // Histograma por décimas (null hasta usarlo).
+    private long[] mascaraSuspensos;     // Bit i a 1 si el alumno i tiene menos de 5 (null hasta usarla).
+    private volatile OyenteNotas[] oyentes = new OyenteNotas[0]; // A quién se avisa (se copia al cambiar).
+    private double resolucionCuantiles = 0.01; // Ancho de los intervalos de la distribución.
 
     /**
      * Constructor que inicializa una asignatura con un nombre.
@@ -27,8 +48,159 @@ public class Asignatura {
     public Asignatura(String nombreAsignatura, double[] listaNotas) {
         this.nombreAsignatura = nombreAsignatura;
         if (listaNotas != null) {
-            this.listaNotas = listaNotas; // Inicializa las notas si no son nulas.
+            this.listaNotas = new NotasArray(listaNotas); // Inicializa las notas si no son nulas.
+        }
+    }
+
+    /**
+     * Constructor que inicializa una asignatura cuyas notas están en un almacén dado,
+     * por ejemplo una columna de la matriz de un grupo.
+     * @param nombreAsignatura Nombre de la asignatura.
+     * @param listaNotas Almacén con las notas.
+     */
+    Asignatura(String nombreAsignatura, AlmacenNotas listaNotas) {
+        this.nombreAsignatura = nombreAsignatura;
+        this.listaNotas = listaNotas;
+    }
+
+    /**
+     * Devuelve el almacén donde están las notas de la asignatura.
+     * @return Almacén de notas o null si no hay notas.
+     */
+    AlmacenNotas getAlmacen() {
+        return this.listaNotas;
+    }
+
+    /**
+     * Traslada las notas de la asignatura a otro almacén y pasa a usarlo.
+     * Si la asignatura no tiene notas, simplemente empieza a usar el nuevo almacén.
+     * @param destino Almacén de destino (con el mismo número de alumnos).
+     */
+    void usarAlmacen(AlmacenNotas destino) {
+        if (this.listaNotas != null) {
+            for (int i = 0; i < this.listaNotas.longitud(); i++) {
+                destino.ponerNota(i, this.listaNotas.nota(i));
+            }
+        }
+        this.listaNotas = destino;
+        invalidarEstadisticas();
+    }
+
+    /**
+     * Pasa a usar otro almacén tal cual, sin copiar notas (por ejemplo, el que resulta
+     * de compactar el grupo), y descarta las estadísticas.
+     * @param almacen Almacén con las notas nuevas.
+     */
+    void reemplazarAlmacen(AlmacenNotas almacen) {
+        this.listaNotas = almacen;
+        invalidarEstadisticas();
+    }
+
+    /**
+     * Añade al final la nota de un alumno nuevo (ya validada). Un almacén compacto crece
+     * sin dejar de guardar décimas; cualquier otro pasa la primera vez a un almacén por
+     * segmentos. En ambos casos añadir cuesta O(1) amortizado y las estadísticas y las
+     * estructuras ya construidas se actualizan con la nota tal como queda guardada.
+     * El árbol de mínimo y máximo tiene tamaño fijo, así que se descarta y se reconstruye
+     * en el siguiente cambio de nota.
+     * @param nota Nota del alumno nuevo.
+     */
+    void añadirNota(double nota) {
+        int alumno = this.listaNotas.longitud();
+        if (this.listaNotas instanceof NotasCompactas) {
+            ((NotasCompactas) this.listaNotas).añadir(nota);
+            arbol = null; // Tiene el tamaño anterior.
+        } else {
+            if (!(this.listaNotas instanceof NotasSegmentadas)) {
+                this.listaNotas = new NotasSegmentadas(this.listaNotas);
+                arbol = null; // Leía las hojas del almacén anterior.
+            }
+            ((NotasSegmentadas) this.listaNotas).añadir(nota);
+        }
+        nota = this.listaNotas.nota(alumno); // Redondeada si el almacén es compacto.
+        if (estadisticasValidas) {
+            sumar(nota);
+            sumarCuadrado(nota * nota);
+            if (nota >= 5) {
+                aprobados++;
+            }
+            notaMinima = Math.min(notaMinima, nota);
+            notaMaxima = Math.max(notaMaxima, nota);
+            arbol = null;
+        }
+        resumen = null;
+        if (cuantiles != null) {
+            cuantiles.añadir(nota);
+        }
+        if (histograma != null) {
+            histograma.añadir(nota);
+        }
+        if (mascaraSuspensos != null) {
+            if (alumno >>> 6 == mascaraSuspensos.length) {
+                mascaraSuspensos = Arrays.copyOf(mascaraSuspensos, mascaraSuspensos.length * 2 + 1);
+            }
+            mascaraSuspensos[alumno >>> 6] |= (nota < 5 ? 1L : 0L) << alumno;
+        }
+        for (OyenteNotas oyente : oyentes) {
+            oyente.notaCambiada(alumno);
+        }
+    }
+
+    /**
+     * Sustituye las notas de la asignatura por las de otro almacén. Si el almacén actual
+     * tiene el mismo tamaño se copian en él (puede ser una vista); si no, se crea uno nuevo.
+     * @param origen Almacén con las notas nuevas.
+     */
+    void copiarNotasDe(AlmacenNotas origen) {
+        if (this.listaNotas == null || this.listaNotas.longitud() != origen.longitud()) {
+            this.listaNotas = new NotasArray(origen.longitud());
+        }
+        for (int i = 0; i < origen.longitud(); i++) {
+            this.listaNotas.ponerNota(i, origen.nota(i));
+        }
+        invalidarEstadisticas();
+    }
+
+    /**
+     * Registra un oyente que recibirá los avisos de cambios de nota. Puede llamarse desde otro
+     * hilo que el que cambia las notas: el array de oyentes nunca se modifica, se sustituye por
+     * una copia, y quien avisa lee el que esté publicado en ese momento.
+     * @param oyente Oyente a registrar.
+     */
+    synchronized void añadirOyente(OyenteNotas oyente) {
+        OyenteNotas[] actuales = oyentes;
+        OyenteNotas[] nuevos = Arrays.copyOf(actuales, actuales.length + 1);
+        nuevos[actuales.length] = oyente;
+        oyentes = nuevos;
+    }
+
+    /**
+     * Deja de avisar a un oyente (como añadirOyente, puede llamarse desde otro hilo).
+     * @param oyente Oyente registrado antes.
+     */
+    synchronized void quitarOyente(OyenteNotas oyente) {
+        OyenteNotas[] actuales = oyentes;
+        for (int i = 0; i < actuales.length; i++) {
+            if (actuales[i] == oyente) {
+                OyenteNotas[] nuevos = Arrays.copyOf(actuales, actuales.length - 1);
+                System.arraycopy(actuales, i + 1, nuevos, i, actuales.length - i - 1);
+                oyentes = nuevos;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pasa la asignatura a almacenamiento compacto: cada nota ocupa un byte
+     * guardada en décimas. Las notas se redondean a la décima más cercana.
+     * Si la asignatura no tiene notas no hace nada.
+     */
+    public void compactar() {
+        long medida = Metricas.inicio();
+        if (this.listaNotas != null && !(this.listaNotas instanceof NotasCompactas)) {
+            usarAlmacen(new NotasCompactas(this.listaNotas.longitud()));
         }
+        Metricas.fin(Metricas.Operacion.COMPACTAR, medida);
     }
 
     /**
@@ -39,6 +211,14 @@ public class Asignatura {
         return this.nombreAsignatura;
     }
 
+    /**
+     * Devuelve el número de alumnos con nota en la asignatura.
+     * @return Número de notas o -1 si no hay notas.
+     */
+    public int totalNotas() {
+        return this.listaNotas != null ? this.listaNotas.longitud() : -1;
+    }
+
     /**
      * Permite introducir notas para un número determinado de alumnos.
      * Si ya hay notas, pregunta si se desean reintroducir.
@@ -60,10 +240,14 @@ public class Asignatura {
 
         // Si se decide introducir nuevas notas, se inicializa el array y se piden las notas.
         if (introducirNotas) {
-            listaNotas = new double[totalAlumnos];
+            // Si el almacén actual tiene el tamaño adecuado se reutiliza (puede ser una vista).
+            if (listaNotas == null || listaNotas.longitud() != totalAlumnos) {
+                listaNotas = new NotasArray(totalAlumnos);
+            }
             for (int i = 0; i < totalAlumnos; i++) {
-                listaNotas[i] = leerNota(i); // Llama al método auxiliar para leer una nota.
+                listaNotas.ponerNota(i, leerNota(i)); // Llama al método auxiliar para leer una nota.
             }
+            invalidarEstadisticas(); // Las estadísticas anteriores ya no son válidas.
         }
 
         System.out.println(this); // Imprime la representación de la asignatura.
@@ -85,22 +269,158 @@ public class Asignatura {
     }
 
 
+    /**
+     * Calcula las estadísticas de la asignatura si no están al día, con una sola
+     * pasada por el almacén de notas. A partir de ahí cambiarNota las mantiene
+     * sin volver a recorrer las notas.
+     * @return true si hay notas y las estadísticas están disponibles.
+     */
+    private boolean calcularEstadisticas() {
+        if (this.listaNotas == null) {
+            return false;
+        }
+        if (!estadisticasValidas) {
+            ReduccionNotas reduccion = new ReduccionNotas(); // Una sola pasada por las notas.
+            this.listaNotas.reducir(5, reduccion);
+            suma = 0;
+            compensacion = 0;
+            sumar(reduccion.suma);
+            sumaCuadrados = reduccion.sumaCuadrados;
+            compensacionCuadrados = 0;
+            aprobados = this.listaNotas.longitud() - reduccion.menores;
+            notaMinima = reduccion.minimo;
+            notaMaxima = reduccion.maximo;
+            arbol = null; // El árbol solo se construye si se llega a cambiar alguna nota.
+            resumen = null;
+            estadisticasValidas = true;
+        }
+        return true;
+    }
+
+    /**
+     * Suma un valor a la suma de notas compensando el error de redondeo,
+     * para que las correcciones sucesivas no desvíen la media.
+     * @param valor Valor a sumar (negativo para restar).
+     */
+    private void sumar(double valor) {
+        double y = valor - compensacion;
+        double t = suma + y;
+        compensacion = (t - suma) - y;
+        suma = t;
+    }
+
+    /**
+     * Suma un valor a la suma de cuadrados compensando el error de redondeo, como sumar().
+     * @param valor Valor a sumar (negativo para restar).
+     */
+    private void sumarCuadrado(double valor) {
+        double y = valor - compensacionCuadrados;
+        double t = sumaCuadrados + y;
+        compensacionCuadrados = (t - sumaCuadrados) - y;
+        sumaCuadrados = t;
+    }
+
+    /**
+     * Descarta las estadísticas para que se recalculen en la próxima consulta
+     * y avisa a los oyentes de que pueden haber cambiado todas las notas.
+     */
+    private void invalidarEstadisticas() {
+        descartarEstadisticas();
+        for (OyenteNotas oyente : oyentes) {
+            oyente.notasCambiadas();
+        }
+    }
+
+    /**
+     * Descarta las estadísticas sin avisar a los oyentes (ya se les ha avisado de cada cambio).
+     */
+    private void descartarEstadisticas() {
+        estadisticasValidas = false;
+        arbol = null;
+        resumen = null;
+        cuantiles = null;
+        histograma = null;
+        mascaraSuspensos = null;
+    }
+
+    /**
+     * Devuelve las estadísticas de la asignatura en un único objeto.
+     * El resultado se guarda y solo se vuelve a crear cuando cambian las notas.
+     * @return Resumen de las notas o null si no hay notas.
+     */
+    public Resumen resumen() {
+        long medida = Metricas.inicio();
+        Resumen calculado = prepararResumen();
+        Metricas.fin(Metricas.Operacion.RESUMEN, medida);
+        return calculado;
+    }
+
+    /**
+     * Calcula las estadísticas y el resumen si no están al día, sin medirlo en las métricas.
+     * @return Resumen de las notas o null si no hay notas.
+     */
+    Resumen prepararResumen() {
+        if (resumen == null && calcularEstadisticas()) {
+            resumen = resumenActual();
+        }
+        return resumen;
+    }
+
+    /**
+     * Crea un resumen con las estadísticas guardadas, sin recalcularlas ni modificar
+     * ningún campo. Solo es correcto si las estadísticas están al día.
+     * @return Resumen de las notas o null si no hay notas.
+     */
+    Resumen resumenActual() {
+        AlmacenNotas notas = this.listaNotas;
+        if (notas == null) {
+            return null;
+        }
+        int total = notas.longitud();
+        return new Resumen(total, suma / total, notaMinima, notaMaxima, aprobados, total - aprobados);
+    }
+
+    /**
+     * Calcula estadísticas combinables de las notas (incluida la suma de cuadrados y el
+     * histograma), que pueden agregarse con las de otras asignaturas o grupos.
+     * Salen de las estadísticas y el histograma que ya se mantienen con cada cambio de nota,
+     * así que solo se recorren las notas si no están al día.
+     * @return Estadísticas nuevas (vacías si no hay notas).
+     */
+    public EstadisticasNotas estadisticas() {
+        long medida = Metricas.inicio();
+        if (calcularEstadisticas()) {
+            prepararHistograma();
+        }
+        EstadisticasNotas estadisticas = estadisticasActuales();
+        Metricas.fin(Metricas.Operacion.ESTADISTICAS, medida);
+        return estadisticas;
+    }
+
+    /**
+     * Crea las estadísticas combinables con los valores guardados, sin recalcularlos ni
+     * modificar ningún campo. Solo es correcto si las estadísticas y el histograma están al día.
+     * @return Estadísticas nuevas (vacías si no hay notas).
+     */
+    EstadisticasNotas estadisticasActuales() {
+        AlmacenNotas notas = this.listaNotas;
+        if (notas == null || notas.longitud() == 0) {
+            return new EstadisticasNotas();
+        }
+        return new EstadisticasNotas(notas.longitud(), suma, sumaCuadrados, notaMinima, notaMaxima,
+                aprobados, histograma);
+    }
+
     /**
      * Calcula la media de las notas de los alumnos.
      * @return Media de las notas o -1 si no hay notas.
      */
     public double media() {
-        double suma = 0;
-
-        if (this.listaNotas != null) {
-            // Suma todas las notas.
-            for (double nota : this.listaNotas) {
-                suma += nota;
-            }
-            return suma / this.listaNotas.length; // Devuelve la media.
-        } else {
-            return -1; // Indica que no hay notas disponibles.
-        }
+        long medida = Metricas.inicio();
+        // -1 indica que no hay notas
+        double valor = calcularEstadisticas() ? suma / this.listaNotas.longitud() : -1;
+        Metricas.fin(Metricas.Operacion.MEDIA, medida);
+        return valor;
     }
 
     /**
@@ -108,18 +428,11 @@ public class Asignatura {
      * @return Nota mínima o -1 si no hay notas.
      */
     public double minimo() {
-        double resultado = Double.MAX_VALUE;
-
-        if (listaNotas != null) {
-            for (double nota : this.listaNotas) {
-                if (nota < resultado) { // Actualiza el mínimo si se encuentra una nota menor.
-                    resultado = nota;
-                }
-            }
-        } else {
-            resultado = -1; // Indica que no hay notas.
-        }
-        return resultado;
+        long medida = Metricas.inicio();
+        // -1 indica que no hay notas
+        double valor = calcularEstadisticas() ? notaMinima : -1;
+        Metricas.fin(Metricas.Operacion.MINIMO, medida);
+        return valor;
     }
 
     /**
@@ -127,18 +440,11 @@ public class Asignatura {
      * @return Nota máxima o -1 si no hay notas.
      */
     public double maximo() {
-        double resultado = Double.MIN_VALUE;
-
-        if (this.listaNotas != null) {
-            for (double nota : this.listaNotas) {
-                if (nota > resultado) { // Actualiza el máximo si se encuentra una nota mayor.
-                    resultado = nota;
-                }
-            }
-        } else {
-            resultado = -1; // Indica que no hay notas.
-        }
-        return resultado;
+        long medida = Metricas.inicio();
+        // -1 indica que no hay notas
+        double valor = calcularEstadisticas() ? notaMaxima : -1;
+        Metricas.fin(Metricas.Operacion.MAXIMO, medida);
+        return valor;
     }
 
     /**
@@ -146,18 +452,11 @@ public class Asignatura {
      * @return Número de suspensos o -1 si no hay notas.
      */
     public int totalSuspensos() {
-        int suspensos = 0;
-
-        if (this.listaNotas != null) {
-            for (double nota : this.listaNotas) {
-                if (nota < 5) { // Considera suspenso cualquier nota menor a 5.
-                    suspensos++;
-                }
-            }
-        } else {
-            suspensos = -1; // Indica que no hay notas.
-        }
-        return suspensos;
+        long medida = Metricas.inicio();
+        // -1 indica que no hay notas
+        int valor = calcularEstadisticas() ? this.listaNotas.longitud() - aprobados : -1;
+        Metricas.fin(Metricas.Operacion.TOTAL_APROBADOS_SUSPENSOS, medida);
+        return valor;
     }
 
     /**
@@ -165,18 +464,11 @@ public class Asignatura {
      * @return Número de aprobados o -1 si no hay notas.
      */
     public int totalAprobados() {
-        int aprobados = 0;
-
-        if (this.listaNotas != null) {
-            for (double nota : this.listaNotas) {
-                if (nota >= 5) { // Considera aprobado cualquier nota igual o mayor a 5.
-                    aprobados++;
-                }
-            }
-        } else {
-            aprobados = -1; // Indica que no hay notas.
-        }
-        return aprobados;
+        long medida = Metricas.inicio();
+        // -1 indica que no hay notas
+        int valor = calcularEstadisticas() ? aprobados : -1;
+        Metricas.fin(Metricas.Operacion.TOTAL_APROBADOS_SUSPENSOS, medida);
+        return valor;
     }
 
     /**
@@ -190,24 +482,149 @@ public class Asignatura {
             System.out.println("Notas aún no introducidas.");
         } else if (nota < 0 || nota > 10) {
             System.out.println("Nota incorrecta (0..10).");
-        } else if (alumno < 0 || alumno >= this.listaNotas.length) {
-            System.out.println("Índice incorrecto (0.." + (listaNotas.length - 1) + ").");
+        } else if (alumno < 0 || alumno >= this.listaNotas.longitud()) {
+            System.out.println("Índice incorrecto (0.." + (listaNotas.longitud() - 1) + ").");
         } else {
-            listaNotas[alumno] = nota; // Actualiza la nota del alumno.
+            long medida = Metricas.inicio();
+            aplicarNota(alumno, nota, estadisticasValidas);
+            if (estadisticasValidas) {
+                terminarCambios();
+            }
+            Metricas.fin(Metricas.Operacion.CAMBIAR_NOTA, medida);
+        }
+    }
+
+    /**
+     * Cambia las notas de varios alumnos de una vez. Primero se validan todas las entradas
+     * y después se aplican las correctas; las estadísticas se actualizan una sola vez al final.
+     * No escribe nada en consola: las entradas rechazadas se devuelven en un BitSet.
+     * @param alumnos Índices de los alumnos.
+     * @param notas Nuevas notas (misma longitud que alumnos).
+     * @return Posiciones del lote rechazadas (índice o nota incorrectos, o asignatura sin notas).
+     */
+    public BitSet cambiarNotas(int[] alumnos, double[] notas) {
+        if (alumnos.length != notas.length) {
+            throw new IllegalArgumentException("Se esperaban tantas notas como alumnos: "
+                    + alumnos.length + " != " + notas.length);
+        }
+        BitSet rechazadas = new BitSet(alumnos.length);
+        if (this.listaNotas == null) {
+            rechazadas.set(0, alumnos.length);
+            return rechazadas;
+        }
+        long medida = Metricas.inicio();
+
+        // Validación de todo el lote, palabra a palabra del BitSet y sin saltos en el bucle interior
+        int total = this.listaNotas.longitud();
+        long[] palabras = new long[(alumnos.length + 63) / 64];
+        for (int i = 0; i < alumnos.length; i++) {
+            double nota = notas[i];
+            int alumno = alumnos[i];
+            boolean correcta = nota >= 0 & nota <= 10 & alumno >= 0 & alumno < total; // NaN no pasa.
+            palabras[i >>> 6] |= (correcta ? 0L : 1L) << i;
+        }
+        rechazadas = BitSet.valueOf(palabras);
+
+        // Si el lote es grande es más barato recalcular todo en la próxima consulta que actualizar
+        // nota a nota: se descartan antes las estadísticas y las estructuras (histograma, cuantiles
+        // y máscara), así que cada nota solo se escribe y se avisa a los oyentes.
+        boolean grande = (long) alumnos.length * (32 - Integer.numberOfLeadingZeros(total)) >= total;
+        if (grande) {
+            descartarEstadisticas(); // Los oyentes reciben cada cambio.
+        }
+        boolean incremental = estadisticasValidas;
+        for (int i = 0; i < alumnos.length; i++) {
+            if (!rechazadas.get(i)) {
+                aplicarNota(alumnos[i], notas[i], incremental);
+            }
+        }
+        if (incremental) {
+            terminarCambios();
+        }
+        Metricas.fin(Metricas.Operacion.CAMBIAR_NOTAS, medida);
+        return rechazadas;
+    }
+
+    /**
+     * Escribe la nota de un alumno (ya validada) y, si se indica, actualiza la suma,
+     * los aprobados y el árbol de mínimo y máximo.
+     * @param alumno Índice del alumno.
+     * @param nota Nueva nota.
+     * @param incremental true para actualizar las estadísticas.
+     */
+    private void aplicarNota(int alumno, double nota, boolean incremental) {
+        double anterior = listaNotas.nota(alumno);
+        listaNotas.ponerNota(alumno, nota); // Actualiza la nota del alumno.
+        if (incremental) {
+            nota = listaNotas.nota(alumno); // El almacén puede redondear la nota (modo compacto).
+            // Actualiza las estadísticas sin recorrer de nuevo todas las notas.
+            sumar(nota - anterior);
+            sumarCuadrado(nota * nota - anterior * anterior);
+            if (anterior >= 5) {
+                aprobados--;
+            }
+            if (nota >= 5) {
+                aprobados++;
+            }
+            if (arbol == null) {
+                arbol = new ArbolMinMax(listaNotas); // Se construye ya con la nota nueva.
+            } else {
+                arbol.actualizar(alumno);
+            }
+        }
+        double nueva = listaNotas.nota(alumno);
+        if (cuantiles != null) {
+            cuantiles.quitar(anterior);
+            cuantiles.añadir(nueva);
+        }
+        if (histograma != null) {
+            histograma.quitar(anterior);
+            histograma.añadir(nueva);
         }
+        if (mascaraSuspensos != null) {
+            long bit = 1L << alumno; // El desplazamiento usa solo los 6 bits bajos del índice.
+            mascaraSuspensos[alumno >>> 6] = nueva < 5 ? mascaraSuspensos[alumno >>> 6] | bit
+                    : mascaraSuspensos[alumno >>> 6] & ~bit;
+        }
+        for (OyenteNotas oyente : oyentes) {
+            oyente.notaCambiada(alumno);
+        }
+    }
+
+    /**
+     * Completa la actualización incremental de las estadísticas tras uno o varios cambios.
+     */
+    private void terminarCambios() {
+        if (arbol != null) { // Si no se ha aplicado ningún cambio no hay árbol.
+            notaMinima = arbol.minimo();
+            notaMaxima = arbol.maximo();
+        }
+        resumen = null;
     }
+
     /**
      * Devuelve el índice del alumno con la mejor nota.
      * @return Índice del mejor alumno o -1 si no hay notas.
      */
     public int mejorAlumno() {
+        long medida = Metricas.inicio();
+        int mejor = mejorAlumnoActual();
+        Metricas.fin(Metricas.Operacion.MEJOR_PEOR_NOTA, medida);
+        return mejor;
+    }
+
+    /**
+     * Busca el alumno con la mejor nota, sin medirlo en las métricas.
+     * @return Índice del mejor alumno o -1 si no hay notas.
+     */
+    int mejorAlumnoActual() {
         double mejorNota = Double.MIN_VALUE;
         int mejorAlumno = -1;
 
         if (this.listaNotas != null) {
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                if (this.listaNotas[i] > mejorNota) {
-                    mejorNota = this.listaNotas[i];
+            for (int i = 0; i < this.listaNotas.longitud(); i++) {
+                if (this.listaNotas.nota(i) > mejorNota) {
+                    mejorNota = this.listaNotas.nota(i);
                     mejorAlumno = i;
                 }
             }
@@ -220,13 +637,24 @@ public class Asignatura {
      * @return Índice del peor alumno o -1 si no hay notas.
      */
     public int peorAlumno() {
+        long medida = Metricas.inicio();
+        int peor = peorAlumnoActual();
+        Metricas.fin(Metricas.Operacion.MEJOR_PEOR_NOTA, medida);
+        return peor;
+    }
+
+    /**
+     * Busca el alumno con la peor nota, sin medirlo en las métricas.
+     * @return Índice del peor alumno o -1 si no hay notas.
+     */
+    int peorAlumnoActual() {
         double peorNota = Double.MAX_VALUE;
         int peorAlumno = -1;
 
         if (this.listaNotas != null) {
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                if (this.listaNotas[i] < peorNota) {
-                    peorNota = this.listaNotas[i];
+            for (int i = 0; i < this.listaNotas.longitud(); i++) {
+                if (this.listaNotas.nota(i) < peorNota) {
+                    peorNota = this.listaNotas.nota(i);
                     peorAlumno = i;
                 }
             }
@@ -242,8 +670,8 @@ public class Asignatura {
      */
     public double notaAlumno(int alumno) {
         double nota = 0;
-        if (listaNotas != null && !(alumno < 0 || alumno >= listaNotas.length)) {
-            nota = listaNotas[alumno]; // Devuelve la nota del alumno en el índice dado.
+        if (listaNotas != null && !(alumno < 0 || alumno >= listaNotas.longitud())) {
+            nota = listaNotas.nota(alumno); // Devuelve la nota del alumno en el índice dado.
         } else {
             nota = -1; // Retorna -1 si no hay notas o el índice es inválido.
         }
@@ -255,20 +683,10 @@ public class Asignatura {
      * @return Array de índices de alumnos aprobados, o null si no hay aprobados o notas.
      */
     public int[] dameAprobados() {
-        int[] alumnosAprobados = null;
-        int totalAprobados = totalAprobados();
-
-        if (listaNotas != null && totalAprobados > 0) {
-            alumnosAprobados = new int[totalAprobados];
-            int indiceAprobados = 0;
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                if (this.listaNotas[i] >= 5) { // Considera aprobado una nota >= 5.
-                    alumnosAprobados[indiceAprobados] = i; // Guarda el índice del aprobado.
-                    indiceAprobados++;
-                }
-            }
-        }
-        return alumnosAprobados;
+        long medida = Metricas.inicio();
+        int[] aprobados = indicesDeMascara(false);
+        Metricas.fin(Metricas.Operacion.INDICES_APROBADOS_SUSPENSOS, medida);
+        return aprobados;
     }
 
     /**
@@ -276,20 +694,107 @@ public class Asignatura {
      * @return Array de índices de alumnos suspensos, o null si no hay suspensos o notas.
      */
     public int[] dameSuspensos() {
-        int[] alumnosSuspensos = null;
-        int totalSuspensos = totalSuspensos();
-
-        if (listaNotas != null && totalSuspensos > 0) {
-            alumnosSuspensos = new int[totalSuspensos];
-            int indiceSuspensos = 0;
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                if (this.listaNotas[i] < 5) { // Considera suspenso una nota < 5.
-                    alumnosSuspensos[indiceSuspensos] = i; // Guarda el índice del suspenso.
-                    indiceSuspensos++;
-                }
+        long medida = Metricas.inicio();
+        int[] suspensos = indicesDeMascara(true);
+        Metricas.fin(Metricas.Operacion.INDICES_APROBADOS_SUSPENSOS, medida);
+        return suspensos;
+    }
+
+    /**
+     * Obtiene los índices de los suspensos o de los aprobados a partir de la máscara de
+     * suspensos, recorriendo solo los bits a 1 de cada palabra.
+     * @param suspensos true para los suspensos (nota menor que 5), false para los aprobados.
+     * @return Array con los índices, o null si no hay ninguno.
+     */
+    int[] indicesDeMascara(boolean suspensos) {
+        long[] mascara = palabrasSuspensos();
+        if (mascara == null) {
+            return null;
+        }
+        int total = this.listaNotas.longitud();
+        long invertir = suspensos ? 0 : -1L; // Los aprobados son los bits a 0.
+        int cuenta = 0;
+        for (int w = 0; w < mascara.length; w++) {
+            cuenta += Long.bitCount((mascara[w] ^ invertir) & palabraValida(w, total));
+        }
+        if (cuenta == 0) {
+            return null;
+        }
+        int[] indices = new int[cuenta];
+        int posicion = 0;
+        for (int w = 0; w < mascara.length; w++) {
+            long bits = (mascara[w] ^ invertir) & palabraValida(w, total);
+            while (bits != 0) {
+                indices[posicion++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1; // Quita el bit más bajo.
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Devuelve una máscara con los bits de una palabra que corresponden a alumnos existentes.
+     * @param palabra Índice de la palabra.
+     * @param total Número de alumnos.
+     * @return Máscara de bits válidos (0 si la palabra queda entera por encima del total).
+     */
+    static long palabraValida(int palabra, int total) {
+        int resto = total - (palabra << 6);
+        return resto >= 64 ? -1L : resto <= 0 ? 0 : (1L << resto) - 1;
+    }
+
+    /**
+     * Devuelve el conjunto de alumnos suspensos (nota menor que 5), para combinarlo con
+     * los de otras asignaturas (and, or, andNot...).
+     * @return Conjunto nuevo con los índices de los suspensos (vacío si no hay notas).
+     */
+    public BitSet mascaraSuspensos() {
+        long medida = Metricas.inicio();
+        long[] mascara = palabrasSuspensos();
+        BitSet suspensos = mascara != null ? BitSet.valueOf(mascara) : new BitSet();
+        Metricas.fin(Metricas.Operacion.MASCARA_APROBADOS_SUSPENSOS, medida);
+        return suspensos;
+    }
+
+    /**
+     * Devuelve el conjunto de alumnos aprobados (nota mayor o igual que 5).
+     * @return Conjunto nuevo con los índices de los aprobados (vacío si no hay notas).
+     */
+    public BitSet mascaraAprobados() {
+        long medida = Metricas.inicio();
+        long[] mascara = palabrasSuspensos();
+        BitSet aprobados = mascara != null ? BitSet.valueOf(mascara) : new BitSet();
+        if (this.listaNotas != null) {
+            aprobados.flip(0, this.listaNotas.longitud());
+        }
+        Metricas.fin(Metricas.Operacion.MASCARA_APROBADOS_SUSPENSOS, medida);
+        return aprobados;
+    }
+
+    /**
+     * Devuelve las palabras de la máscara de suspensos, construyéndola si aún no existe.
+     * Los bits por encima del número de alumnos están a 0 y puede haber palabras de más al final,
+     * si se han añadido alumnos. El array no debe modificarse.
+     * @return Palabras de la máscara, o null si no hay notas.
+     */
+    long[] palabrasSuspensos() {
+        prepararMascara();
+        return this.mascaraSuspensos;
+    }
+
+    /**
+     * Construye la máscara de suspensos si hay notas y aún no existe.
+     * A partir de ahí se mantiene con cada cambio de nota.
+     */
+    void prepararMascara() {
+        AlmacenNotas notas = this.listaNotas;
+        if (notas != null && this.mascaraSuspensos == null) {
+            long[] mascara = new long[(notas.longitud() + 63) >>> 6];
+            for (int i = 0; i < notas.longitud(); i++) {
+                mascara[i >>> 6] |= (notas.nota(i) < 5 ? 1L : 0L) << i;
             }
+            this.mascaraSuspensos = mascara;
         }
-        return alumnosSuspensos;
     }
 
     /**
@@ -298,12 +803,24 @@ public class Asignatura {
      * @return Índice del primer alumno con nota menor al valor, o -1 si no hay ninguno.
      */
     public int primerMenor(double nota) {
+        long medida = Metricas.inicio();
+        int indice = primerMenorActual(nota);
+        Metricas.fin(Metricas.Operacion.PRIMER_MENOR, medida);
+        return indice;
+    }
+
+    /**
+     * Busca el primer alumno con una nota menor a un valor dado, sin medirlo en las métricas.
+     * @param nota Valor de referencia.
+     * @return Índice del primer alumno con nota menor al valor, o -1 si no hay ninguno.
+     */
+    int primerMenorActual(double nota) {
         boolean encontrado = false;
         int indice = 0;
 
         if (this.listaNotas != null && (nota >= 0 && nota <= 10)) {
-            while (!encontrado && (indice < listaNotas.length)) {
-                if (listaNotas[indice] < nota) { // Encuentra el primer menor.
+            while (!encontrado && (indice < listaNotas.longitud())) {
+                if (listaNotas.nota(indice) < nota) { // Encuentra el primer menor.
                     encontrado = true;
                 } else {
                     indice++;
@@ -316,20 +833,140 @@ public class Asignatura {
         return indice;
     }
 
+    /**
+     * Calcula un cuantil de las notas: la nota que ocupa la posición ceil(q * n) al ordenarlas.
+     * Con pocas notas el resultado es exacto; con más de UMBRAL_CUANTILES_EXACTOS se usa una
+     * distribución por intervalos que se mantiene al cambiar las notas, y el error es como
+     * mucho la mitad de la resolución configurada.
+     * @param q Fracción entre 0 y 1 (0,5 para la mediana, 0,9 para el percentil 90).
+     * @return Nota del cuantil o -1 si no hay notas o q no es válido.
+     */
+    public double cuantil(double q) {
+        long medida = Metricas.inicio();
+        double valor = cuantilConstruyendo(q);
+        Metricas.fin(Metricas.Operacion.CUANTIL, medida);
+        return valor;
+    }
+
+    /**
+     * Calcula un cuantil construyendo antes la distribución aproximada si hace falta.
+     * @param q Fracción entre 0 y 1.
+     * @return Nota del cuantil o -1 si no hay notas o q no es válido.
+     */
+    double cuantilConstruyendo(double q) {
+        double valor = cuantilActual(q);
+        if (Double.isNaN(valor)) {
+            cuantiles = construirCuantiles();
+            valor = cuantiles.cuantil(q);
+        }
+        return valor;
+    }
+
+    /**
+     * Construye la distribución aproximada de las notas actuales sin guardarla ni modificar
+     * ningún campo.
+     * @return Distribución nueva.
+     */
+    CuantilesNotas construirCuantiles() {
+        return new CuantilesNotas(resolucionCuantiles).añadirTodas(listaNotas);
+    }
+
+    /**
+     * Guarda la distribución aproximada, que debe corresponder a las notas actuales; a partir
+     * de aquí se mantiene con cada cambio de nota.
+     * @param distribucion Distribución construida con construirCuantiles.
+     */
+    void usarCuantiles(CuantilesNotas distribucion) {
+        cuantiles = distribucion;
+    }
+
+    /**
+     * Calcula un cuantil sin modificar ningún campo.
+     * @param q Fracción entre 0 y 1.
+     * @return Nota del cuantil, -1 si no hay notas o q no es válido, o NaN si hace falta
+     *         construir antes la distribución aproximada.
+     */
+    double cuantilActual(double q) {
+        AlmacenNotas notas = this.listaNotas;
+        if (notas == null || !(q >= 0 && q <= 1)) {
+            return -1;
+        }
+        int total = notas.longitud();
+        if (total <= UMBRAL_CUANTILES_EXACTOS) {
+            double[] ordenadas = ordenarActual();
+            return ordenadas[Math.max(1, (int) Math.ceil(q * total)) - 1];
+        }
+        CuantilesNotas distribucion = this.cuantiles;
+        return distribucion != null ? distribucion.cuantil(q) : Double.NaN;
+    }
+
+    /**
+     * @return Mediana de las notas o -1 si no hay notas.
+     */
+    public double mediana() {
+        return cuantil(0.5);
+    }
+
+    /**
+     * Cambia la resolución de los cuantiles aproximados. Una resolución menor da menos error
+     * pero ocupa más memoria (4 bytes por intervalo) y hace las consultas algo más lentas.
+     * @param resolucion Ancho de los intervalos, entre 0,001 y 1 (error máximo resolucion / 2).
+     */
+    public void setResolucionCuantiles(double resolucion) {
+        if (resolucion >= 0.001 && resolucion <= 1) {
+            this.resolucionCuantiles = resolucion;
+            this.cuantiles = null;
+        } else {
+            System.out.println("[!] Resolución de cuantiles no válida: " + resolucion);
+        }
+    }
+
     /**
      * Ordena las notas de los alumnos de menor a mayor.
      * @return Array de notas ordenadas, o null si no hay notas.
      */
     public double[] ordenar() {
+        long medida = Metricas.inicio();
+        prepararHistograma();
+        double[] ordenadas = ordenarActual();
+        Metricas.fin(Metricas.Operacion.ORDENAR, medida);
+        return ordenadas;
+    }
+
+    /**
+     * Ordena las notas sin modificar ningún campo. Si el histograma está construido y todas las
+     * notas son décimas exactas, se ordenan por cuentas en O(n); si no, se ordena una copia.
+     * @return Array de notas ordenadas, o null si no hay notas.
+     */
+    double[] ordenarActual() {
+        AlmacenNotas notas = this.listaNotas;
+        HistogramaNotas decimas = this.histograma;
         double[] listaNotasOrdenada = null;
 
-        if (this.listaNotas != null) {
-            listaNotasOrdenada = Arrays.copyOf(this.listaNotas, this.listaNotas.length);
-            Arrays.sort(listaNotasOrdenada); // Usa el método de ordenación de Arrays.
+        if (notas != null) {
+            listaNotasOrdenada = new double[notas.longitud()];
+            if (decimas != null && decimas.esExacto()) {
+                decimas.ordenarEn(listaNotasOrdenada); // Ordenación por cuentas.
+            } else {
+                for (int i = 0; i < listaNotasOrdenada.length; i++) {
+                    listaNotasOrdenada[i] = notas.nota(i);
+                }
+                Arrays.sort(listaNotasOrdenada); // Usa el método de ordenación de Arrays.
+            }
         }
         return listaNotasOrdenada;
     }
 
+    /**
+     * Construye el histograma por décimas si hay notas y aún no existe.
+     * A partir de ahí se mantiene con cada cambio de nota.
+     */
+    void prepararHistograma() {
+        if (this.listaNotas != null && this.histograma == null) {
+            this.histograma = new HistogramaNotas().añadirTodas(this.listaNotas);
+        }
+    }
+
     /**
      * Analiza el grupo y da recomendaciones basadas en la distribución de las notas.
      * - Fenomenal: Si más de dos tercios tienen nota > 7.
@@ -338,36 +975,64 @@ public class Asignatura {
      * - Subgrupos: Si ninguna de las anteriores aplica.
      */
     public void analizaGrupo() {
+        long medida = Metricas.inicio();
+        prepararHistograma();
+        mostrarAnalisis();
+        Metricas.fin(Metricas.Operacion.ANALIZA_GRUPO, medida);
+    }
+
+    /**
+     * Analiza el grupo como analizaGrupo() pero sin escribir en consola: deja el veredicto
+     * y las categorías en un resultado que da quien llama. Una vez construido el histograma
+     * no reserva memoria, así que puede llamarse muchas veces reutilizando el mismo resultado.
+     * @param resultado Resultado que se rellena.
+     * @return Veredicto del análisis (SIN_NOTAS si no hay notas).
+     */
+    public Veredicto analizaGrupo(ResultadoAnalisis resultado) {
+        long medida = Metricas.inicio();
+        prepararHistograma();
+        Veredicto veredicto = analizar(resultado);
+        Metricas.fin(Metricas.Operacion.ANALIZA_GRUPO, medida);
+        return veredicto;
+    }
+
+    /**
+     * Escribe en consola el análisis del grupo sin modificar ningún campo.
+     */
+    private void mostrarAnalisis() {
+        System.out.println(analizar(new ResultadoAnalisis()).getMensaje());
+    }
+
+    /**
+     * Cuenta los alumnos de cada categoría sin modificar ningún campo. Con el histograma
+     * construido las categorías salen de sus contadores en O(1); si no, se recorren las notas.
+     * @param resultado Resultado que se rellena.
+     * @return Veredicto del análisis.
+     */
+    Veredicto analizar(ResultadoAnalisis resultado) {
+        AlmacenNotas notas = this.listaNotas;
+        HistogramaNotas decimas = this.histograma;
+        if (notas == null) {
+            return resultado.vaciar();
+        }
+        if (decimas != null) {
+            int fenomenal = decimas.fenomenales();
+            return resultado.fijar(fenomenal, decimas.aprobados() - fenomenal, decimas.total() - decimas.aprobados());
+        }
         int fenomenal = 0;
         int repaso = 0;
         int mal = 0;
-
-        if (this.listaNotas != null) {
-            int dosTercios = (this.listaNotas.length / 3) * 2; // Calcula los dos tercios del grupo.
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                double nota = this.listaNotas[i];
-                if (nota > 7) {
-                    fenomenal++;
-                } else if (nota >= 5) {
-                    repaso++;
-                } else {
-                    mal++;
-                }
-            }
-
-            // Imprime el análisis basado en la cantidad de alumnos en cada categoría.
-            if (fenomenal >= dosTercios) {
-                System.out.println("VAMOS FENOMENAL");
-            } else if (repaso >= dosTercios) {
-                System.out.println("REPASAR EJERCICIOS CON DIFICULTAD");
-            } else if (mal >= dosTercios) {
-                System.out.println("VAMOS MAL. REPETIR EL TEMARIO");
+        for (int i = 0; i < notas.longitud(); i++) {
+            double nota = notas.nota(i);
+            if (nota > 7) {
+                fenomenal++;
+            } else if (nota >= 5) {
+                repaso++;
             } else {
-                System.out.println("HACER SUBGRUPOS CON TAREAS DE DIFERENTE DIFICULTAD");
+                mal++;
             }
-        } else {
-            System.out.println("No existen notas en la Array"); // Indica que no hay datos.
         }
+        return resultado.fijar(fenomenal, repaso, mal);
     }
 
     /**
@@ -381,8 +1046,8 @@ public class Asignatura {
         resultado.append(nombreAsignatura);
 
         if (listaNotas != null) {
-            for (int i = 0; i < this.listaNotas.length; i++) {
-                resultado.append("\nAlumno ").append(i + 1).append(": ").append(listaNotas[i]);
+            for (int i = 0; i < this.listaNotas.longitud(); i++) {
+                resultado.append("\nAlumno ").append(i + 1).append(": ").append(listaNotas.nota(i));
             }
         } else {
             resultado.append("\nSin notas por el momento");
@@ -0,0 +1,336 @@
+import java.util.BitSet;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Variante de Asignatura que admite cambios de nota y consultas desde varios hilos a la vez.
+ * Cada asignatura tiene su propio StampedLock: las escrituras toman el cerrojo de escritura
+ * y las consultas leen de forma optimista, sin bloquear a los escritores, y solo si un cambio
+ * se ha cruzado con la lectura la repiten con el cerrojo de lectura.
+ * Las estadísticas, el histograma por décimas y la máscara de suspensos se mantienen siempre
+ * calculados, de modo que los lectores nunca los modifican y nunca se obtiene un resultado a partir
+ * de un cambio a medio aplicar.
+ */
+public class AsignaturaConcurrente extends Asignatura {
+
+    private final StampedLock cerrojo = new StampedLock(); // Cerrojo de la asignatura.
+    private long cambios; // Número de escrituras (protegido por el cerrojo).
+
+    /**
+     * Constructor que inicializa una asignatura con un nombre y una lista de notas.
+     * @param nombreAsignatura Nombre de la asignatura.
+     * @param listaNotas Lista inicial de notas.
+     */
+    public AsignaturaConcurrente(String nombreAsignatura, double[] listaNotas) {
+        super(nombreAsignatura, listaNotas);
+        prepararResumen(); // Deja calculadas las estadísticas.
+        prepararHistograma();
+        prepararMascara();
+    }
+
+    /**
+     * Constructor que usa las notas de un almacén existente.
+     * @param nombreAsignatura Nombre de la asignatura.
+     * @param listaNotas Almacén con las notas.
+     */
+    AsignaturaConcurrente(String nombreAsignatura, AlmacenNotas listaNotas) {
+        super(nombreAsignatura, listaNotas);
+        prepararResumen(); // Deja calculadas las estadísticas.
+        prepararHistograma();
+        prepararMascara();
+    }
+
+    /**
+     * Ejecuta una consulta con lectura optimista. Si un escritor ha intervenido
+     * (o la lectura inconsistente ha fallado), la repite con el cerrojo de lectura.
+     * @param consulta Consulta que solo lee.
+     * @return Resultado de la consulta.
+     */
+    private <T> T leer(Supplier<T> consulta) {
+        long sello = cerrojo.tryOptimisticRead();
+        if (sello != 0) {
+            try {
+                T resultado = consulta.get();
+                if (cerrojo.validate(sello)) {
+                    return resultado;
+                }
+            } catch (RuntimeException e) {
+                // Se ha leído un estado a medio cambiar: se repite con el cerrojo.
+            }
+        }
+        sello = cerrojo.readLock();
+        try {
+            return consulta.get();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Ejecuta un cambio con el cerrojo de escritura y deja las estadísticas calculadas.
+     * @param cambio Cambio a aplicar.
+     */
+    private void escribir(Runnable cambio) {
+        long sello = cerrojo.writeLock();
+        try {
+            cambio.run();
+            cambios++;
+            prepararResumen(); // Recalcula las estadísticas si el cambio las ha invalidado.
+            prepararHistograma();
+            prepararMascara();
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+    }
+
+    @Override
+    public void cambiarNota(double nota, int alumno) {
+        escribir(() -> super.cambiarNota(nota, alumno));
+    }
+
+    @Override
+    public BitSet cambiarNotas(int[] alumnos, double[] notas) {
+        BitSet[] rechazadas = new BitSet[1];
+        escribir(() -> rechazadas[0] = super.cambiarNotas(alumnos, notas));
+        return rechazadas[0];
+    }
+
+    @Override
+    public void leerNotas(int totalAlumnos) {
+        // La lectura por consola se hace fuera del cerrojo sobre una copia de las notas,
+        // y después se aplica de una vez
+        Asignatura copia = new Asignatura(getNombreAsignatura(), leer(this::copiarNotas));
+        copia.leerNotas(totalAlumnos);
+        escribir(() -> copiarNotasDe(copia.getAlmacen()));
+    }
+
+    /**
+     * Copia las notas actuales en un array.
+     * @return Array con las notas o null si no hay notas.
+     */
+    private double[] copiarNotas() {
+        int total = super.totalNotas();
+        if (total < 0) {
+            return null;
+        }
+        double[] copia = new double[total];
+        for (int i = 0; i < total; i++) {
+            copia[i] = super.notaAlumno(i);
+        }
+        return copia;
+    }
+
+    @Override
+    void usarAlmacen(AlmacenNotas destino) {
+        escribir(() -> super.usarAlmacen(destino));
+    }
+
+    @Override
+    void reemplazarAlmacen(AlmacenNotas almacen) {
+        escribir(() -> super.reemplazarAlmacen(almacen));
+    }
+
+    @Override
+    void añadirNota(double nota) {
+        escribir(() -> super.añadirNota(nota));
+    }
+
+    @Override
+    public Resumen resumen() {
+        return resumen(Metricas.Operacion.RESUMEN);
+    }
+
+    /**
+     * Lee el resumen guardado (siempre al día) y lo mide como la operación indicada.
+     * @param operacion Operación que se registra en las métricas.
+     * @return Resumen de las notas o null si no hay notas.
+     */
+    private Resumen resumen(Metricas.Operacion operacion) {
+        long medida = Metricas.inicio();
+        Resumen resumen = leer(this::resumenActual);
+        Metricas.fin(operacion, medida);
+        return resumen;
+    }
+
+    @Override
+    public EstadisticasNotas estadisticas() {
+        // Las estadísticas y el histograma siempre están al día: no hay que recalcular nada.
+        long medida = Metricas.inicio();
+        EstadisticasNotas estadisticas = leer(this::estadisticasActuales);
+        Metricas.fin(Metricas.Operacion.ESTADISTICAS, medida);
+        return estadisticas;
+    }
+
+    @Override
+    public double cuantil(double q) {
+        long medida = Metricas.inicio();
+        double valor = leer(() -> cuantilActual(q));
+        if (Double.isNaN(valor)) {
+            // Falta la distribución aproximada: se construye leyendo como las demás consultas, sin
+            // bloquear a los escritores, y el cerrojo de escritura solo se toma para guardarla si
+            // las notas no han cambiado mientras tanto (si han cambiado, sirve para esta consulta)
+            long[] leidos = new long[1];
+            CuantilesNotas distribucion = leer(() -> {
+                leidos[0] = cambios;
+                return construirCuantiles();
+            });
+            valor = distribucion.cuantil(q);
+            long sello = cerrojo.writeLock();
+            try {
+                if (cambios == leidos[0]) {
+                    usarCuantiles(distribucion);
+                }
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+        }
+        Metricas.fin(Metricas.Operacion.CUANTIL, medida);
+        return valor;
+    }
+
+    @Override
+    public void setResolucionCuantiles(double resolucion) {
+        escribir(() -> super.setResolucionCuantiles(resolucion));
+    }
+
+    @Override
+    public double media() {
+        Resumen resumen = resumen(Metricas.Operacion.MEDIA);
+        return resumen != null ? resumen.getMedia() : -1;
+    }
+
+    @Override
+    public double minimo() {
+        Resumen resumen = resumen(Metricas.Operacion.MINIMO);
+        return resumen != null ? resumen.getMinimo() : -1;
+    }
+
+    @Override
+    public double maximo() {
+        Resumen resumen = resumen(Metricas.Operacion.MAXIMO);
+        return resumen != null ? resumen.getMaximo() : -1;
+    }
+
+    @Override
+    public int totalAprobados() {
+        Resumen resumen = resumen(Metricas.Operacion.TOTAL_APROBADOS_SUSPENSOS);
+        return resumen != null ? resumen.getAprobados() : -1;
+    }
+
+    @Override
+    public int totalSuspensos() {
+        Resumen resumen = resumen(Metricas.Operacion.TOTAL_APROBADOS_SUSPENSOS);
+        return resumen != null ? resumen.getSuspensos() : -1;
+    }
+
+    @Override
+    public double notaAlumno(int alumno) {
+        return leer(() -> super.notaAlumno(alumno));
+    }
+
+    @Override
+    public int mejorAlumno() {
+        long medida = Metricas.inicio();
+        int mejor = leer(this::mejorAlumnoActual);
+        Metricas.fin(Metricas.Operacion.MEJOR_PEOR_NOTA, medida);
+        return mejor;
+    }
+
+    @Override
+    public int peorAlumno() {
+        long medida = Metricas.inicio();
+        int peor = leer(this::peorAlumnoActual);
+        Metricas.fin(Metricas.Operacion.MEJOR_PEOR_NOTA, medida);
+        return peor;
+    }
+
+    @Override
+    public int[] dameAprobados() {
+        long medida = Metricas.inicio();
+        int[] aprobados = leer(() -> indicesDeMascara(false));
+        Metricas.fin(Metricas.Operacion.INDICES_APROBADOS_SUSPENSOS, medida);
+        return aprobados;
+    }
+
+    @Override
+    public int[] dameSuspensos() {
+        long medida = Metricas.inicio();
+        int[] suspensos = leer(() -> indicesDeMascara(true));
+        Metricas.fin(Metricas.Operacion.INDICES_APROBADOS_SUSPENSOS, medida);
+        return suspensos;
+    }
+
+    @Override
+    long[] palabrasSuspensos() {
+        // Copia: quien la recorre lo hace fuera del cerrojo
+        return leer(() -> {
+            long[] mascara = super.palabrasSuspensos();
+            return mascara != null ? mascara.clone() : null;
+        });
+    }
+
+    @Override
+    public int primerMenor(double nota) {
+        long medida = Metricas.inicio();
+        int indice = leer(() -> primerMenorActual(nota));
+        Metricas.fin(Metricas.Operacion.PRIMER_MENOR, medida);
+        return indice;
+    }
+
+    @Override
+    public double[] ordenar() {
+        long medida = Metricas.inicio();
+        double[] ordenadas = leer(this::ordenarActual);
+        Metricas.fin(Metricas.Operacion.ORDENAR, medida);
+        return ordenadas;
+    }
+
+    @Override
+    public void analizaGrupo() {
+        // Se analiza sin bloquear y se escribe en consola después, fuera del cerrojo.
+        long medida = Metricas.inicio();
+        Veredicto veredicto = analizarSinBloquear(new ResultadoAnalisis());
+        System.out.println(veredicto.getMensaje());
+        Metricas.fin(Metricas.Operacion.ANALIZA_GRUPO, medida);
+    }
+
+    @Override
+    public Veredicto analizaGrupo(ResultadoAnalisis resultado) {
+        long medida = Metricas.inicio();
+        Veredicto veredicto = analizarSinBloquear(resultado);
+        Metricas.fin(Metricas.Operacion.ANALIZA_GRUPO, medida);
+        return veredicto;
+    }
+
+    @Override
+    public String toString() {
+        return leer(super::toString);
+    }
+
+    /**
+     * Analiza las notas con lectura optimista, como leer() pero sin lambda para no reservar
+     * memoria. Si un escritor se cruza con la lectura, el resultado se vuelve a rellenar con
+     * el cerrojo de lectura.
+     * @param resultado Resultado que se rellena.
+     * @return Veredicto del análisis.
+     */
+    private Veredicto analizarSinBloquear(ResultadoAnalisis resultado) {
+        long sello = cerrojo.tryOptimisticRead();
+        if (sello != 0) {
+            try {
+                Veredicto veredicto = analizar(resultado);
+                if (cerrojo.validate(sello)) {
+                    return veredicto;
+                }
+            } catch (RuntimeException e) {
+                // Se ha leído un estado a medio cambiar: se repite con el cerrojo.
+            }
+        }
+        sello = cerrojo.readLock();
+        try {
+            return analizar(resultado);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Consulta perezosa sobre los alumnos de un grupo. Los filtros y el valor se van añadiendo
+ * y no se ejecuta nada hasta pedir un resultado (contar, alumnos, mejores, peores o
+ * estadisticas); entonces se recorren los alumnos una sola vez aplicando todos los pasos
+ * a cada uno. Por ejemplo, los diez repetidores con peor media:
+ * <pre>
+ *     int[] peores = grupo.consulta().filtrar(a -&gt; a.suspensos() &gt; 2).peores(10);
+ * </pre>
+ * Los alumnos dados de baja no se recorren. El recorrido puede hacerse en paralelo: cada tarea acumula su tramo de alumnos por separado
+ * y al final se combinan los resultados, que son los mismos que en secuencial.
+ */
+public class ConsultaGrupo {
+
+    private final Grupo grupo;                               // Grupo consultado.
+    private final List<Predicate<VistaAlumno>> filtros;      // Filtros que debe cumplir cada alumno.
+    private ToDoubleFunction<VistaAlumno> valor = VistaAlumno::media; // Valor de cada alumno.
+    private ForkJoinPool pool;                               // Pool para el recorrido (null si es secuencial).
+    private int umbral;                                      // Alumnos por tarea en paralelo.
+
+    /**
+     * Constructor de la consulta.
+     * @param grupo Grupo consultado.
+     */
+    ConsultaGrupo(Grupo grupo) {
+        this.grupo = grupo;
+        this.filtros = new ArrayList<>();
+    }
+
+    /**
+     * Añade un filtro: solo se tienen en cuenta los alumnos que lo cumplen.
+     * @param filtro Condición sobre el alumno.
+     * @return Esta misma consulta.
+     */
+    public ConsultaGrupo filtrar(Predicate<VistaAlumno> filtro) {
+        filtros.add(filtro);
+        return this;
+    }
+
+    /**
+     * Cambia el valor que se calcula para cada alumno (por defecto, su media).
+     * @param valor Función que da el valor del alumno.
+     * @return Esta misma consulta.
+     */
+    public ConsultaGrupo valor(ToDoubleFunction<VistaAlumno> valor) {
+        this.valor = valor;
+        return this;
+    }
+
+    /**
+     * Hace el recorrido en paralelo en el pool común de fork/join.
+     * @return Esta misma consulta.
+     */
+    public ConsultaGrupo enParalelo() {
+        return enParalelo(ForkJoinPool.commonPool(), 1024);
+    }
+
+    /**
+     * Hace el recorrido en paralelo en un pool dado.
+     * @param pool Pool fork/join.
+     * @param umbral Número de alumnos a partir del cual se divide el trabajo.
+     * @return Esta misma consulta.
+     */
+    public ConsultaGrupo enParalelo(ForkJoinPool pool, int umbral) {
+        this.pool = pool;
+        this.umbral = Math.max(1, umbral);
+        return this;
+    }
+
+    /**
+     * @return Número de alumnos que cumplen los filtros.
+     */
+    public int contar() {
+        return ((Indices) ejecutar(new Indices())).total;
+    }
+
+    /**
+     * @return Índices de los alumnos que cumplen los filtros, en orden.
+     */
+    public int[] alumnos() {
+        Indices indices = (Indices) ejecutar(new Indices());
+        return Arrays.copyOf(indices.indices, indices.total);
+    }
+
+    /**
+     * Devuelve los k alumnos con mayor valor entre los que cumplen los filtros.
+     * @param k Número de alumnos.
+     * @return Índices de los alumnos, del mayor valor al menor (a igualdad, el de menor índice antes).
+     */
+    public int[] mejores(int k) {
+        return ((Extremos) ejecutar(new Extremos(acotar(k), true))).monticulo.extraerOrdenados();
+    }
+
+    /**
+     * Devuelve los k alumnos con menor valor entre los que cumplen los filtros.
+     * @param k Número de alumnos.
+     * @return Índices de los alumnos, del menor valor al mayor (a igualdad, el de menor índice antes).
+     */
+    public int[] peores(int k) {
+        return ((Extremos) ejecutar(new Extremos(acotar(k), false))).monticulo.extraerOrdenados();
+    }
+
+    /**
+     * @return Estadísticas combinables de los valores de los alumnos que cumplen los filtros.
+     */
+    public EstadisticasNotas estadisticas() {
+        return ((Estadisticas) ejecutar(new Estadisticas())).estadisticas;
+    }
+
+    /**
+     * Acota el número de alumnos pedido al tamaño del grupo.
+     * @param k Número de alumnos pedido.
+     * @return Número entre 0 y el total de alumnos.
+     */
+    private int acotar(int k) {
+        return Math.max(0, Math.min(k, grupo.getTotalAlumnos()));
+    }
+
+    /**
+     * Recorre los alumnos, en paralelo si se ha pedido, acumulando el resultado.
+     * @param acumulador Acumulador vacío del resultado pedido.
+     * @return Acumulador con el resultado.
+     */
+    private Acumulador ejecutar(Acumulador acumulador) {
+        int total = grupo.getTotalAlumnos();
+        grupo.actualizarVista(); // Durante el recorrido las sumas y suspensos solo se leen.
+        if (pool != null && total > umbral) {
+            return pool.invoke(new Tramo(acumulador, 0, total));
+        }
+        recorrer(acumulador, 0, total);
+        return acumulador;
+    }
+
+    /**
+     * Recorre un tramo de alumnos aplicando los filtros y el valor a cada uno.
+     * @param acumulador Acumulador del tramo.
+     * @param desde Primer alumno (incluido).
+     * @param hasta Último alumno (excluido).
+     */
+    private void recorrer(Acumulador acumulador, int desde, int hasta) {
+        VistaAlumno vista = new VistaAlumno(grupo);
+        int totalFiltros = filtros.size();
+        for (int i = desde; i < hasta; i++) {
+            if (grupo.alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            vista.mover(i);
+            boolean cumple = true;
+            for (int f = 0; f < totalFiltros && cumple; f++) {
+                cumple = filtros.get(f).test(vista);
+            }
+            if (cumple) {
+                acumulador.añadir(i, acumulador.usaValor() ? valor.applyAsDouble(vista) : 0);
+            }
+        }
+    }
+
+    /**
+     * Tarea fork/join que recorre un tramo de alumnos dividiéndolo en mitades.
+     * La mitad izquierda acumula en el acumulador recibido y la derecha en uno nuevo,
+     * que después se combina detrás, de modo que se conserva el orden de los alumnos.
+     */
+    private class Tramo extends RecursiveTask<Acumulador> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Acumulador acumulador;
+        private final int desde;
+        private final int hasta;
+
+        Tramo(Acumulador acumulador, int desde, int hasta) {
+            this.acumulador = acumulador;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            if (hasta - desde <= umbral) {
+                recorrer(acumulador, desde, hasta);
+                return acumulador;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            Tramo derecho = new Tramo(acumulador.vacio(), mitad, hasta);
+            derecho.fork();
+            Acumulador izquierdo = new Tramo(acumulador, desde, mitad).compute();
+            izquierdo.combinar(derecho.join());
+            return izquierdo;
+        }
+    }
+
+    /**
+     * Resultado parcial de una consulta.
+     */
+    private abstract static class Acumulador {
+
+        /** Añade un alumno que cumple los filtros. */
+        abstract void añadir(int alumno, double valor);
+
+        /** Añade detrás el resultado de otro tramo posterior. */
+        abstract void combinar(Acumulador otro);
+
+        /** Crea un acumulador vacío del mismo tipo. */
+        abstract Acumulador vacio();
+
+        /** Indica si el resultado necesita el valor de cada alumno. */
+        boolean usaValor() {
+            return true;
+        }
+    }
+
+    /**
+     * Índices de los alumnos que cumplen los filtros, en orden.
+     */
+    private static class Indices extends Acumulador {
+
+        private int[] indices = new int[16];
+        private int total;
+
+        @Override
+        void añadir(int alumno, double valor) {
+            if (total == indices.length) {
+                indices = Arrays.copyOf(indices, total * 2);
+            }
+            indices[total++] = alumno;
+        }
+
+        @Override
+        void combinar(Acumulador otro) {
+            Indices otros = (Indices) otro;
+            if (total + otros.total > indices.length) {
+                indices = Arrays.copyOf(indices, total + otros.total);
+            }
+            System.arraycopy(otros.indices, 0, indices, total, otros.total);
+            total += otros.total;
+        }
+
+        @Override
+        Acumulador vacio() {
+            return new Indices();
+        }
+
+        @Override
+        boolean usaValor() {
+            return false;
+        }
+    }
+
+    /**
+     * Los k alumnos con mayor o menor valor.
+     */
+    private static class Extremos extends Acumulador {
+
+        private final int k;
+        private final boolean mayores;
+        private final MonticuloAcotado monticulo;
+
+        Extremos(int k, boolean mayores) {
+            this.k = k;
+            this.mayores = mayores;
+            this.monticulo = new MonticuloAcotado(this.k, mayores);
+        }
+
+        @Override
+        void añadir(int alumno, double valor) {
+            monticulo.ofrecer(valor, alumno);
+        }
+
+        @Override
+        void combinar(Acumulador otro) {
+            monticulo.combinar(((Extremos) otro).monticulo);
+        }
+
+        @Override
+        Acumulador vacio() {
+            return new Extremos(k, mayores);
+        }
+    }
+
+    /**
+     * Estadísticas de los valores.
+     */
+    private static class Estadisticas extends Acumulador {
+
+        private final EstadisticasNotas estadisticas = new EstadisticasNotas();
+
+        @Override
+        void añadir(int alumno, double valor) {
+            estadisticas.añadir(valor);
+        }
+
+        @Override
+        void combinar(Acumulador otro) {
+            estadisticas.combinar(((Estadisticas) otro).estadisticas);
+        }
+
+        @Override
+        Acumulador vacio() {
+            return new Estadisticas();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Resumen aproximado de la distribución de las notas de una asignatura para calcular
+ * cuantiles (mediana, percentiles) sin ordenar las notas.
+ * Como las notas están acotadas entre 0 y 10, se cuentan en intervalos de ancho fijo:
+ * la memoria no depende del número de notas, se pueden añadir y quitar notas (cuando cambian)
+ * y el cuantil devuelto está a una distancia de como mucho resolucion / 2 del exacto.
+ * Las cuentas se guardan en un árbol de Fenwick, así que añadir, quitar y consultar
+ * cuestan O(log m), siendo m el número de intervalos.
+ */
+class CuantilesNotas {
+
+    private final double pasos;  // Intervalos por unidad de nota (inverso de la resolución).
+    private final int intervalos; // Número de intervalos.
+    private final int[] arbol;   // Árbol de Fenwick con las cuentas (posiciones 1..intervalos).
+    private int total;           // Número de notas contadas.
+
+    /**
+     * Constructor del resumen vacío.
+     * @param resolucion Ancho de los intervalos (entre 0,001 y 10).
+     */
+    CuantilesNotas(double resolucion) {
+        this.pasos = 1 / resolucion;
+        this.intervalos = (int) Math.ceil(10 / resolucion) + 1;
+        this.arbol = new int[intervalos + 1];
+    }
+
+    /**
+     * Cuenta todas las notas de un almacén, construyendo el árbol en O(n + m).
+     * @param notas Almacén de notas (el resumen debe estar vacío).
+     * @return Este mismo resumen.
+     */
+    CuantilesNotas añadirTodas(AlmacenNotas notas) {
+        for (int i = 0; i < notas.longitud(); i++) {
+            arbol[intervalo(notas.nota(i)) + 1]++;
+        }
+        total += notas.longitud();
+        for (int k = 1; k <= intervalos; k++) {
+            int padre = k + (k & -k);
+            if (padre <= intervalos) {
+                arbol[padre] += arbol[k];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Cuenta una nota.
+     * @param nota Nota entre 0 y 10.
+     */
+    void añadir(double nota) {
+        sumarCuenta(intervalo(nota), 1);
+        total++;
+    }
+
+    /**
+     * Deja de contar una nota que se había añadido antes.
+     * @param nota Nota entre 0 y 10.
+     */
+    void quitar(double nota) {
+        sumarCuenta(intervalo(nota), -1);
+        total--;
+    }
+
+    /**
+     * Devuelve el cuantil q: la nota que ocupa la posición ceil(q * n) en las notas ordenadas.
+     * @param q Fracción entre 0 y 1.
+     * @return Nota aproximada del cuantil, o -1 si no hay notas.
+     */
+    double cuantil(double q) {
+        if (total == 0) {
+            return -1;
+        }
+        int restantes = Math.max(1, (int) Math.ceil(q * total));
+        // Baja por el árbol buscando el último intervalo con menos notas acumuladas que la posición
+        int k = 0;
+        for (int salto = Integer.highestOneBit(intervalos); salto > 0; salto >>= 1) {
+            int siguiente = k + salto;
+            if (siguiente <= intervalos && arbol[siguiente] < restantes) {
+                k = siguiente;
+                restantes -= arbol[siguiente];
+            }
+        }
+        return Math.min(10, k / pasos); // k es el índice (desde 0) del intervalo buscado
+    }
+
+    /**
+     * Suma una cantidad a la cuenta de un intervalo.
+     * @param intervalo Índice del intervalo (desde 0).
+     * @param cantidad Cantidad a sumar.
+     */
+    private void sumarCuenta(int intervalo, int cantidad) {
+        for (int k = intervalo + 1; k <= intervalos; k += k & -k) {
+            arbol[k] += cantidad;
+        }
+    }
+
+    /**
+     * Intervalo al que pertenece una nota.
+     * @param nota Nota (se acota al rango del resumen).
+     * @return Índice del múltiplo de la resolución más cercano.
+     */
+    private int intervalo(double nota) {
+        int k = (int) Math.round(nota * pasos);
+        return k < 0 ? 0 : k >= intervalos ? intervalos - 1 : k;
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Clase que agrupa los grupos de un curso y calcula estadísticas globales.
+ * Las estadísticas de cada grupo se calculan en paralelo y después se combinan,
+ * sin crear asignaturas intermedias con todas las notas.
+ */
+public class Curso {
+
+    private static final int UMBRAL_GRUPOS = 8; // Grupos que procesa cada tarea sin dividirse.
+
+    private final String nombreCurso;   // Nombre del curso.
+    private final List<Grupo> grupos;   // Grupos del curso.
+    private final ForkJoinPool pool;    // Pool en el que se calculan las estadísticas.
+
+    /**
+     * Constructor que usa el pool común de fork/join.
+     * @param nombreCurso Nombre del curso.
+     */
+    public Curso(String nombreCurso) {
+        this(nombreCurso, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool propio para los cálculos en paralelo.
+     * @param nombreCurso Nombre del curso.
+     * @param pool Pool fork/join en el que se calculan las estadísticas.
+     */
+    public Curso(String nombreCurso, ForkJoinPool pool) {
+        this.nombreCurso = nombreCurso;
+        this.grupos = new ArrayList<>();
+        this.pool = pool;
+    }
+
+    /**
+     * Añade un grupo al curso.
+     * @param grupo Grupo que se añade.
+     */
+    public void añadirGrupo(Grupo grupo) {
+        grupos.add(grupo);
+    }
+
+    /**
+     * @return Nombre del curso.
+     */
+    public String getNombreCurso() {
+        return nombreCurso;
+    }
+
+    /**
+     * @return Número de grupos del curso.
+     */
+    public int getTotalGrupos() {
+        return grupos.size();
+    }
+
+    /**
+     * Calcula las estadísticas de todas las notas del curso.
+     * @return Estadísticas combinadas de todos los grupos.
+     */
+    public EstadisticasNotas estadisticas() {
+        return combinarGrupos(Grupo::estadisticas);
+    }
+
+    /**
+     * Calcula las estadísticas de las medias de todos los alumnos del curso.
+     * @return Estadísticas combinadas de las medias.
+     */
+    public EstadisticasNotas estadisticasMedias() {
+        return combinarGrupos(Grupo::estadisticasMedias);
+    }
+
+    /**
+     * Calcula las estadísticas de una asignatura en todos los grupos que la tienen.
+     * @param nombreAsignatura Nombre de la asignatura.
+     * @return Estadísticas combinadas de la asignatura.
+     */
+    public EstadisticasNotas estadisticasAsignatura(String nombreAsignatura) {
+        return combinarGrupos(grupo -> grupo.estadisticasAsignatura(nombreAsignatura));
+    }
+
+    /**
+     * Calcula unas estadísticas por grupo en paralelo y las combina.
+     * @param calculo Estadísticas que se calculan para cada grupo.
+     * @return Estadísticas combinadas.
+     */
+    private EstadisticasNotas combinarGrupos(Function<Grupo, EstadisticasNotas> calculo) {
+        Grupo[] lista = grupos.toArray(new Grupo[0]);
+        EstadisticasNotas[] parciales = new EstadisticasNotas[lista.length];
+        pool.invoke(new RecorridoParalelo(i -> parciales[i] = calculo.apply(lista[i]),
+                0, lista.length, UMBRAL_GRUPOS));
+
+        EstadisticasNotas total = new EstadisticasNotas();
+        for (EstadisticasNotas parcial : parciales) {
+            total.combinar(parcial);
+        }
+        return total;
+    }
+
+    /**
+     * Muestra en consola un análisis global del curso a partir de las medias de los alumnos.
+     */
+    public void analizaCurso() {
+        EstadisticasNotas medias = estadisticasMedias();
+        System.out.println("--------Analisis Curso " + nombreCurso + "-------");
+        System.out.println("Grupos: " + grupos.size() + ", Alumnos: " + medias.getTotalNotas());
+        System.out.println("Media: " + medias.media() + ", Desviación: " + medias.desviacion());
+        System.out.println("Mínimo: " + medias.minimo() + ", Máximo: " + medias.maximo());
+        System.out.println("Aprobados: " + medias.getAprobados() + ", Suspensos: " + medias.getSuspensos());
+    }
+}
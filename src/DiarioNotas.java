@@ -0,0 +1,662 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de cambios de nota (registro de escritura anticipada), para no perderlos si el programa
+ * termina de forma inesperada sin tener que guardar una instantánea completa tras cada cambio.
+ * El directorio del diario contiene, para una generación g, la instantánea de cada grupo seguido
+ * ("grupo-id-g.grp", en el formato de InstantaneaGrupo) y el diario con los cambios posteriores
+ * ("diario-g.log"). El diario empieza con una cabecera (número mágico "DIAR", versión y generación)
+ * y sigue con registros de 24 bytes little-endian:
+ * <pre>
+ *   int    grupo
+ *   int    asignatura
+ *   int    alumno
+ *   double nota
+ *   int    CRC-32C de los 20 bytes anteriores
+ * </pre>
+ * Los cambios de nota de los grupos seguidos se anotan en memoria al aplicarse, y confirmar() los
+ * escribe y hace fsync. Anotar nunca escribe en el fichero: el aviso llega con el cerrojo de la
+ * asignatura tomado, y si se acumulan muchos registros se escriben en una tarea aparte. Si varios hilos confirman a la vez, uno escribe y sincroniza los registros
+ * de todos y los demás esperan a que termine (confirmación en grupo): hay un fsync por lote, no
+ * uno por cambio.
+ * Al abrir el directorio se carga la última instantánea y se reproducen los registros del diario
+ * en lotes por asignatura; un registro incompleto o con el CRC incorrecto (escritura interrumpida)
+ * marca el final del diario. Cuando el diario supera un tamaño, o cambia la estructura de algún grupo
+ * (altas, bajas, asignaturas nuevas, notas sustituidas en bloque), la siguiente confirmación compacta:
+ * escribe las instantáneas de la generación siguiente y un diario vacío, y borra la anterior.
+ * Una generación solo cuenta cuando existe su diario, que es lo último que se crea.
+ */
+public class DiarioNotas implements Closeable {
+
+    static final int NUMERO_MAGICO = 0x44494152; // "DIAR"
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 16;  // Número mágico, versión y generación.
+    static final int TAMANO_REGISTRO = 24;  // Grupo, asignatura, alumno, nota y CRC.
+
+    private static final int REGISTROS_LOTE = 4096;         // Registros anotados que se escriben sin esperar a confirmar.
+    private static final int REGISTROS_REPRODUCCION = 1 << 16; // Registros por lote al reproducir.
+    private static final int TAMANO_BUFFER = 8 << 20;       // Buffer de lectura al reproducir (8 MB).
+
+    private final Path directorio;                       // Directorio de las instantáneas y el diario.
+    private final List<Seguido> grupos = new ArrayList<>(); // Grupos seguidos; el índice es su identificador.
+    private final CRC32C crc = new CRC32C();             // CRC de los registros anotados.
+    private FileChannel canal;                           // Diario de la generación actual.
+    private long generacion;                             // Generación actual.
+    private long umbralCompactacion = 64L << 20;         // Tamaño del diario a partir del que se compacta.
+    private long registrosRecuperados;                   // Registros reproducidos al abrir.
+
+    // Confirmación en grupo (protegido por el monitor del diario).
+    private ByteBuffer pendiente;       // Registros anotados que aún no se han escrito.
+    private ByteBuffer libre;           // Buffer para el siguiente lote (null mientras se escribe uno).
+    private long anotados;              // Registros anotados desde que se abrió el diario.
+    private long escritos;              // Registros escritos en el fichero, aún sin sincronizar.
+    private long confirmados;           // Registros escritos y sincronizados (o incluidos en una instantánea).
+    private long inicioGeneracion;      // Primer registro de la generación actual.
+    private boolean escribiendo;        // Indica si un hilo está escribiendo un lote o compactando.
+    private boolean volcadoProgramado;  // Indica si hay una tarea pendiente de escribir los registros anotados.
+    private IOException averia;         // Primer error de escritura: a partir de él el diario no se usa.
+    private volatile boolean instantaneaPendiente; // Algún cambio no cabe en el diario: hay que compactar.
+
+    private DiarioNotas(Path directorio) {
+        this.directorio = directorio;
+        this.pendiente = nuevoBuffer(REGISTROS_LOTE * TAMANO_REGISTRO);
+        this.libre = nuevoBuffer(REGISTROS_LOTE * TAMANO_REGISTRO);
+    }
+
+    /**
+     * Abre el diario de un directorio (lo crea si no existe) y recupera sus grupos: carga la
+     * última instantánea de cada uno y le aplica los cambios anotados en el diario.
+     * @param directorio Directorio del diario.
+     * @return Diario abierto, que sigue ya los cambios de los grupos recuperados.
+     * @throws IOException Si no se puede leer o escribir el directorio.
+     */
+    public static DiarioNotas abrir(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        DiarioNotas diario = new DiarioNotas(directorio);
+        long ultima = ultimaGeneracion(directorio);
+        if (ultima < 0) {
+            diario.canal = diario.crearDiario(0);
+        } else {
+            diario.generacion = ultima;
+            for (int id = 0; Files.exists(diario.ficheroGrupo(id, ultima)); id++) {
+                diario.grupos.add(diario.new Seguido(id, InstantaneaGrupo.cargar(diario.ficheroGrupo(id, ultima))));
+            }
+            diario.canal = FileChannel.open(diario.ficheroDiario(ultima), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                long fin = diario.reproducir();
+                diario.canal.truncate(fin); // Descarta el final de una escritura interrumpida.
+                diario.canal.position(fin);
+            } catch (IOException | RuntimeException e) {
+                diario.canal.close();
+                throw e;
+            }
+        }
+        diario.borrarOtrasGeneraciones();
+        for (Seguido seguido : diario.grupos) {
+            seguido.observar();
+        }
+        return diario;
+    }
+
+    /**
+     * Empieza a seguir los cambios de nota de un grupo. Se guarda enseguida una instantánea
+     * (compactando el diario), así que todas sus asignaturas deben tener notas.
+     * @param grupo Grupo a seguir.
+     * @return Identificador del grupo en el diario.
+     * @throws IOException Si no se puede guardar la instantánea.
+     */
+    public int seguir(Grupo grupo) throws IOException {
+        int id;
+        synchronized (this) {
+            id = grupos.size();
+            grupos.add(new Seguido(id, grupo));
+        }
+        compactar();
+        return id;
+    }
+
+    /**
+     * Devuelve un grupo seguido por el diario.
+     * @param id Identificador del grupo.
+     * @return Grupo.
+     */
+    public synchronized Grupo getGrupo(int id) {
+        return grupos.get(id).grupo;
+    }
+
+    /**
+     * @return Número de grupos seguidos.
+     */
+    public synchronized int getTotalGrupos() {
+        return grupos.size();
+    }
+
+    /**
+     * @return Generación actual (aumenta con cada compactación).
+     */
+    public synchronized long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * @return Registros del diario reproducidos al abrirlo.
+     */
+    public long getRegistrosRecuperados() {
+        return registrosRecuperados;
+    }
+
+    /**
+     * Cambia el tamaño del diario a partir del que la confirmación compacta.
+     * @param bytes Tamaño en bytes (al menos el de un registro).
+     */
+    public synchronized void setUmbralCompactacion(long bytes) {
+        if (bytes >= TAMANO_REGISTRO) {
+            this.umbralCompactacion = bytes;
+        } else {
+            System.out.println("[!] Umbral de compactación no válido: " + bytes);
+        }
+    }
+
+    /**
+     * Hace duraderos todos los cambios anotados hasta ahora: los escribe en el diario y hace
+     * fsync, o compacta si hace falta. Si otro hilo está escribiendo, espera a que termine y
+     * escribe de una vez los registros que se han anotado mientras tanto.
+     * @throws IOException Si falla la escritura (el diario deja de aceptar cambios).
+     */
+    public void confirmar() throws IOException {
+        long numero;
+        boolean compactar;
+        synchronized (this) {
+            numero = anotados;
+            compactar = instantaneaPendiente
+                    || (anotados - inicioGeneracion) * TAMANO_REGISTRO > umbralCompactacion;
+            for (Seguido seguido : grupos) {
+                compactar |= seguido.estructuraCambiada();
+            }
+        }
+        if (compactar) {
+            compactar();
+        } else {
+            escribir(numero, true);
+        }
+    }
+
+    /**
+     * Guarda una instantánea de cada grupo en la generación siguiente, con un diario vacío, y
+     * borra la generación anterior. Los cambios anotados antes de empezar ya están aplicados en
+     * los grupos, así que quedan en las instantáneas; los que se anotan mientras tanto van al
+     * diario nuevo (reproducirlos sobre una instantánea que ya los incluye no cambia nada).
+     * @throws IOException Si falla la escritura (el diario deja de aceptar cambios).
+     */
+    public void compactar() throws IOException {
+        ByteBuffer lote;
+        long hasta;
+        Seguido[] seguidos;
+        synchronized (this) {
+            while (escribiendo) {
+                esperar();
+            }
+            comprobarAveria();
+            escribiendo = true;
+            instantaneaPendiente = false;
+            lote = pendiente;
+            pendiente = libre;
+            libre = null;
+            hasta = anotados;
+            seguidos = grupos.toArray(new Seguido[0]);
+        }
+        try {
+            long nueva = generacion + 1;
+            for (Seguido seguido : seguidos) {
+                seguido.observar(); // Antes de la instantánea: lo que cambie después va al diario nuevo.
+                Path fichero = ficheroGrupo(seguido.id, nueva);
+                InstantaneaGrupo.guardar(seguido.grupo, fichero);
+                sincronizar(fichero);
+            }
+            FileChannel nuevo = crearDiario(nueva);
+            FileChannel anterior = canal;
+            synchronized (this) {
+                canal = nuevo;
+                generacion = nueva;
+            }
+            anterior.close();
+            borrarOtrasGeneraciones();
+        } catch (IOException e) {
+            terminarLote(lote, hasta, e);
+            throw e;
+        }
+        synchronized (this) {
+            inicioGeneracion = hasta;
+            escritos = Math.max(escritos, hasta);
+            confirmados = Math.max(confirmados, hasta);
+        }
+        terminarLote(lote, hasta, null);
+    }
+
+    /**
+     * Confirma los cambios pendientes, deja de seguir los grupos y cierra el diario.
+     * @throws IOException Si falla la última escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            confirmar();
+        } finally {
+            synchronized (this) {
+                for (Seguido seguido : grupos) {
+                    seguido.dejarDeObservar();
+                }
+            }
+            canal.close();
+        }
+    }
+
+    /**
+     * Anota un cambio de nota en memoria. Si se han acumulado muchos registros y nadie está
+     * escribiendo, programa una tarea en el pool común que los escribe (sin fsync) para que el
+     * buffer no crezca sin límite. Se llama desde el oyente de la asignatura, con su cerrojo
+     * tomado, así que no escribe en el fichero ni espera a otro hilo.
+     */
+    private void anotar(int grupo, int asignatura, int alumno, double nota) {
+        long numero;
+        synchronized (this) {
+            if (pendiente.remaining() < TAMANO_REGISTRO) {
+                ByteBuffer mayor = nuevoBuffer(pendiente.capacity() * 2);
+                pendiente.flip();
+                pendiente = mayor.put(pendiente);
+            }
+            int inicio = pendiente.position();
+            pendiente.putInt(grupo).putInt(asignatura).putInt(alumno).putDouble(nota);
+            crc.reset();
+            crc.update(pendiente.array(), inicio, TAMANO_REGISTRO - Integer.BYTES);
+            pendiente.putInt((int) crc.getValue());
+            numero = ++anotados;
+            if (escribiendo || volcadoProgramado || averia != null
+                    || pendiente.position() < REGISTROS_LOTE * TAMANO_REGISTRO) {
+                return;
+            }
+            volcadoProgramado = true;
+        }
+        ForkJoinPool.commonPool().execute(() -> volcar(numero));
+    }
+
+    /**
+     * Escribe (sin fsync) los registros anotados hasta uno dado, fuera del hilo que cambia las notas.
+     * Un error de escritura queda guardado y lo lanza la siguiente confirmación.
+     * @param numero Número del último registro que debe quedar escrito.
+     */
+    private void volcar(long numero) {
+        synchronized (this) {
+            volcadoProgramado = false;
+        }
+        try {
+            escribir(numero, false);
+        } catch (IOException e) {
+            // Ya está en averia (o el diario se ha cerrado): confirmar() avisará.
+        }
+    }
+
+    /**
+     * Escribe los registros anotados hasta uno dado, haciendo de líder de la confirmación en grupo:
+     * el hilo que encuentra libre el diario escribe todos los registros pendientes (también los
+     * de otros hilos) y los que llegan mientras tanto esperan y forman el lote siguiente.
+     * @param numero Número del último registro que debe quedar escrito.
+     * @param forzar true para hacer además fsync y esperar si otro hilo está escribiendo;
+     *               false para escribir solo si nadie más lo está haciendo.
+     */
+    private void escribir(long numero, boolean forzar) throws IOException {
+        ByteBuffer lote;
+        long hasta;
+        synchronized (this) {
+            while (true) {
+                comprobarAveria();
+                if ((forzar ? confirmados : escritos) >= numero) {
+                    return;
+                }
+                if (!escribiendo) {
+                    break;
+                }
+                if (!forzar) {
+                    return; // El lote siguiente se llevará estos registros.
+                }
+                esperar();
+            }
+            escribiendo = true;
+            lote = pendiente;
+            pendiente = libre;
+            libre = null;
+            hasta = anotados;
+        }
+        try {
+            lote.flip();
+            while (lote.hasRemaining()) {
+                canal.write(lote);
+            }
+            if (forzar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            terminarLote(lote, hasta, e);
+            throw e;
+        }
+        synchronized (this) {
+            escritos = Math.max(escritos, hasta);
+            if (forzar) {
+                confirmados = Math.max(confirmados, hasta);
+            }
+        }
+        terminarLote(lote, hasta, null);
+    }
+
+    /**
+     * Devuelve el buffer del lote, deja libre el diario y despierta a los hilos que esperan.
+     * @param lote Buffer del lote (se vacía para reutilizarlo).
+     * @param hasta Último registro del lote.
+     * @param error Error de la escritura, o null si ha ido bien.
+     */
+    private synchronized void terminarLote(ByteBuffer lote, long hasta, IOException error) {
+        lote.clear();
+        libre = lote;
+        escribiendo = false;
+        if (error != null && averia == null) {
+            averia = error;
+        }
+        notifyAll();
+    }
+
+    private void comprobarAveria() throws IOException {
+        if (averia != null) {
+            throw new IOException("El diario ha dejado de aceptar cambios por un error anterior", averia);
+        }
+    }
+
+    private void esperar() throws IOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando al diario");
+        }
+    }
+
+    /**
+     * Reproduce los registros del diario sobre los grupos recuperados, aplicándolos en lotes
+     * con Grupo.cambiarNotas. Se detiene en el primer registro incompleto o con el CRC incorrecto.
+     * @return Posición del fichero tras el último registro válido.
+     */
+    private long reproducir() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        canal.position(0);
+        int leidos = 0;
+        while (buffer.position() < TAMANO_CABECERA && leidos >= 0) {
+            leidos = canal.read(buffer);
+        }
+        buffer.flip();
+        if (buffer.remaining() < TAMANO_CABECERA || buffer.getInt() != NUMERO_MAGICO
+                || buffer.getInt() != VERSION || buffer.getLong() != generacion) {
+            throw new IOException("Cabecera de diario no válida: " + ficheroDiario(generacion));
+        }
+
+        Lote[] lotes = new Lote[grupos.size()];
+        for (int id = 0; id < lotes.length; id++) {
+            lotes[id] = new Lote();
+        }
+        CRC32C control = new CRC32C();
+        long posicion = TAMANO_CABECERA;
+        boolean valido = true;
+        while (valido) {
+            while (buffer.remaining() >= TAMANO_REGISTRO) {
+                int inicio = buffer.position();
+                int limite = buffer.limit();
+                control.reset();
+                buffer.limit(inicio + TAMANO_REGISTRO - Integer.BYTES);
+                control.update(buffer); // Avanza la posición hasta el CRC.
+                buffer.limit(limite);
+                if (buffer.getInt() != (int) control.getValue()) {
+                    valido = false;
+                    break;
+                }
+                int grupo = buffer.getInt(inicio);
+                if (grupo >= 0 && grupo < lotes.length) {
+                    Lote lote = lotes[grupo];
+                    lote.añadir(buffer.getInt(inicio + 4), buffer.getInt(inicio + 8), buffer.getDouble(inicio + 12));
+                    if (lote.total == REGISTROS_REPRODUCCION) {
+                        lote.aplicar(grupos.get(grupo).grupo);
+                    }
+                    registrosRecuperados++;
+                }
+                posicion += TAMANO_REGISTRO;
+            }
+            buffer.compact();
+            valido &= canal.read(buffer) >= 0;
+            buffer.flip();
+        }
+        for (int id = 0; id < lotes.length; id++) {
+            lotes[id].aplicar(grupos.get(id).grupo);
+        }
+        return posicion;
+    }
+
+    /**
+     * Crea el diario vacío de una generación (solo la cabecera, sincronizada) y sincroniza el directorio.
+     * @param numero Generación.
+     * @return Canal del diario, colocado al final.
+     */
+    private FileChannel crearDiario(long numero) throws IOException {
+        FileChannel nuevo = FileChannel.open(ficheroDiario(numero), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.putInt(NUMERO_MAGICO).putInt(VERSION).putLong(numero).flip();
+        while (cabecera.hasRemaining()) {
+            nuevo.write(cabecera);
+        }
+        nuevo.force(true);
+        sincronizar(directorio);
+        return nuevo;
+    }
+
+    /**
+     * Busca la última generación con un diario válido (al menos con la cabecera completa).
+     * @param directorio Directorio del diario.
+     * @return Número de la generación, o -1 si no hay ninguna.
+     */
+    private static long ultimaGeneracion(Path directorio) throws IOException {
+        long ultima = -1;
+        try (DirectoryStream<Path> ficheros = Files.newDirectoryStream(directorio, "diario-*.log")) {
+            for (Path fichero : ficheros) {
+                long numero = generacionDe(fichero);
+                if (numero > ultima && Files.size(fichero) >= TAMANO_CABECERA) {
+                    ultima = numero;
+                }
+            }
+        }
+        return ultima;
+    }
+
+    /**
+     * Borra los ficheros de las generaciones distintas de la actual (la anterior tras compactar,
+     * o los restos de una compactación interrumpida).
+     */
+    private void borrarOtrasGeneraciones() throws IOException {
+        try (DirectoryStream<Path> ficheros = Files.newDirectoryStream(directorio, "{diario-*.log,grupo-*.grp}")) {
+            for (Path fichero : ficheros) {
+                long numero = generacionDe(fichero);
+                if (numero >= 0 && numero != generacion) {
+                    Files.deleteIfExists(fichero);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene la generación de un fichero del diario a partir de su nombre ("...-g.log" o "...-g.grp").
+     * @param fichero Fichero.
+     * @return Número de la generación, o -1 si el nombre no tiene ese formato.
+     */
+    private static long generacionDe(Path fichero) {
+        String nombre = fichero.getFileName().toString();
+        int guion = nombre.lastIndexOf('-');
+        int punto = nombre.lastIndexOf('.');
+        try {
+            return guion >= 0 && punto > guion ? Long.parseLong(nombre.substring(guion + 1, punto)) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Hace fsync de un fichero o directorio. Algunos sistemas no permiten abrir directorios;
+     * entonces no se hace nada.
+     * @param ruta Fichero o directorio.
+     */
+    private static void sincronizar(Path ruta) throws IOException {
+        try (FileChannel fichero = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            fichero.force(true);
+        } catch (IOException e) {
+            if (!Files.isDirectory(ruta)) {
+                throw e;
+            }
+        }
+    }
+
+    private Path ficheroDiario(long numero) {
+        return directorio.resolve("diario-" + numero + ".log");
+    }
+
+    private Path ficheroGrupo(int id, long numero) {
+        return directorio.resolve("grupo-" + id + "-" + numero + ".grp");
+    }
+
+    private static ByteBuffer nuevoBuffer(int capacidad) {
+        return ByteBuffer.allocate(capacidad).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Grupo seguido por el diario, con un oyente en cada asignatura que anota sus cambios de nota.
+     */
+    private final class Seguido {
+
+        private final int id;                  // Identificador del grupo en el diario.
+        private final Grupo grupo;             // Grupo seguido.
+        private volatile long estructura;      // Versión de la estructura del grupo en la última instantánea.
+        private Asignatura[] observadas = new Asignatura[0]; // Asignaturas con oyente.
+        private OyenteNotas[] oyentes = new OyenteNotas[0];  // Oyente de cada asignatura.
+
+        Seguido(int id, Grupo grupo) {
+            this.id = id;
+            this.grupo = grupo;
+            this.estructura = grupo.versionEstructura();
+        }
+
+        /**
+         * Registra (de nuevo) un oyente en cada asignatura actual del grupo y toma la
+         * versión actual de su estructura.
+         */
+        synchronized void observar() {
+            dejarDeObservar();
+            estructura = grupo.versionEstructura();
+            int total = grupo.getTotalAsignaturas();
+            observadas = new Asignatura[total];
+            oyentes = new OyenteNotas[total];
+            for (int j = 0; j < total; j++) {
+                Asignatura asignatura = grupo.getAsignatura(j);
+                if (asignatura != null) {
+                    oyentes[j] = nuevoOyente(j, asignatura);
+                    observadas[j] = asignatura;
+                    asignatura.añadirOyente(oyentes[j]);
+                }
+            }
+        }
+
+        /**
+         * Quita los oyentes de las asignaturas.
+         */
+        synchronized void dejarDeObservar() {
+            for (int j = 0; j < observadas.length; j++) {
+                if (observadas[j] != null) {
+                    observadas[j].quitarOyente(oyentes[j]);
+                }
+            }
+            observadas = new Asignatura[0];
+            oyentes = new OyenteNotas[0];
+        }
+
+        /**
+         * @return true si han cambiado los alumnos o las asignaturas desde la última instantánea.
+         */
+        boolean estructuraCambiada() {
+            return grupo.versionEstructura() != estructura;
+        }
+
+        private OyenteNotas nuevoOyente(int indice, Asignatura asignatura) {
+            return new OyenteNotas() {
+                @Override
+                public void notaCambiada(int alumno) {
+                    if (estructuraCambiada()) {
+                        // Los índices pueden no corresponder a la instantánea: irá en la siguiente.
+                        instantaneaPendiente = true;
+                    } else {
+                        // Se lee del almacén: el aviso llega con el cerrojo de la asignatura tomado.
+                        anotar(id, indice, alumno, asignatura.getAlmacen().nota(alumno));
+                    }
+                }
+
+                @Override
+                public void notasCambiadas() {
+                    instantaneaPendiente = true;
+                }
+            };
+        }
+    }
+
+    /**
+     * Registros de un grupo pendientes de aplicar durante la reproducción.
+     */
+    private static final class Lote {
+
+        private final int[] asignaturas = new int[REGISTROS_REPRODUCCION];
+        private final int[] alumnos = new int[REGISTROS_REPRODUCCION];
+        private final double[] notas = new double[REGISTROS_REPRODUCCION];
+        private int total;
+
+        void añadir(int asignatura, int alumno, double nota) {
+            asignaturas[total] = asignatura;
+            alumnos[total] = alumno;
+            notas[total] = nota;
+            total++;
+        }
+
+        /**
+         * Aplica los registros al grupo en orden (si hay varios de la misma nota, gana el último)
+         * y vacía el lote.
+         * @param grupo Grupo de los registros.
+         */
+        void aplicar(Grupo grupo) {
+            if (total == 0) {
+                return;
+            }
+            if (total == REGISTROS_REPRODUCCION) {
+                grupo.cambiarNotas(asignaturas, alumnos, notas);
+            } else {
+                grupo.cambiarNotas(Arrays.copyOf(asignaturas, total), Arrays.copyOf(alumnos, total),
+                        Arrays.copyOf(notas, total));
+            }
+            total = 0;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Estadísticas combinables de un conjunto de notas: número de notas, suma, suma de cuadrados,
+ * mínimo, máximo, aprobados e histograma por décimas (101 intervalos, de 0,0 a 10,0).
+ * Dos estadísticas se combinan sin volver a leer las notas y el resultado no depende del orden
+ * en que se combinen (salvo el redondeo de las sumas), así que sirven para agregar muchos grupos.
+ */
+public final class EstadisticasNotas {
+
+    /** Número de intervalos del histograma: una décima cada uno. */
+    public static final int INTERVALOS = 101;
+
+    private long totalNotas;      // Número de notas.
+    private double suma;          // Suma de las notas.
+    private double sumaCuadrados; // Suma de los cuadrados de las notas.
+    private double minimo = Double.POSITIVE_INFINITY; // Nota mínima.
+    private double maximo = Double.NEGATIVE_INFINITY; // Nota máxima.
+    private long aprobados;       // Número de notas >= 5.
+    private final long[] histograma = new long[INTERVALOS]; // Notas por décima redondeada.
+
+    /**
+     * Constructor que crea unas estadísticas vacías.
+     */
+    public EstadisticasNotas() {
+    }
+
+    /**
+     * Constructor a partir de los valores que una asignatura ya mantiene, sin leer las notas.
+     * @param totalNotas Número de notas (mayor que 0).
+     * @param suma Suma de las notas.
+     * @param sumaCuadrados Suma de los cuadrados de las notas.
+     * @param minimo Nota mínima.
+     * @param maximo Nota máxima.
+     * @param aprobados Número de notas >= 5.
+     * @param decimas Histograma por décimas de las mismas notas.
+     */
+    EstadisticasNotas(long totalNotas, double suma, double sumaCuadrados, double minimo, double maximo,
+                      long aprobados, HistogramaNotas decimas) {
+        this.totalNotas = totalNotas;
+        this.suma = suma;
+        this.sumaCuadrados = sumaCuadrados;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.aprobados = aprobados;
+        decimas.sumarCuentasEn(histograma);
+    }
+
+    /**
+     * Añade una nota a las estadísticas.
+     * @param nota Nota entre 0 y 10.
+     * @return Estas mismas estadísticas.
+     */
+    public EstadisticasNotas añadir(double nota) {
+        totalNotas++;
+        suma += nota;
+        sumaCuadrados += nota * nota;
+        minimo = nota < minimo ? nota : minimo;
+        maximo = nota > maximo ? nota : maximo;
+        aprobados += nota >= 5 ? 1 : 0;
+        histograma[intervalo(nota)]++;
+        return this;
+    }
+
+    /**
+     * Combina otras estadísticas con estas, como si se hubieran añadido sus notas.
+     * @param otras Estadísticas que se suman a estas (no se modifican).
+     * @return Estas mismas estadísticas.
+     */
+    public EstadisticasNotas combinar(EstadisticasNotas otras) {
+        totalNotas += otras.totalNotas;
+        suma += otras.suma;
+        sumaCuadrados += otras.sumaCuadrados;
+        minimo = Math.min(minimo, otras.minimo);
+        maximo = Math.max(maximo, otras.maximo);
+        aprobados += otras.aprobados;
+        for (int i = 0; i < INTERVALOS; i++) {
+            histograma[i] += otras.histograma[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return Número de notas.
+     */
+    public long getTotalNotas() {
+        return totalNotas;
+    }
+
+    /**
+     * @return Suma de las notas.
+     */
+    public double getSuma() {
+        return suma;
+    }
+
+    /**
+     * @return Media de las notas, o -1 si no hay notas.
+     */
+    public double media() {
+        return totalNotas > 0 ? suma / totalNotas : -1;
+    }
+
+    /**
+     * @return Varianza poblacional de las notas, o -1 si no hay notas.
+     */
+    public double varianza() {
+        if (totalNotas == 0) {
+            return -1;
+        }
+        double media = suma / totalNotas;
+        return Math.max(0, sumaCuadrados / totalNotas - media * media);
+    }
+
+    /**
+     * @return Desviación típica de las notas, o -1 si no hay notas.
+     */
+    public double desviacion() {
+        return totalNotas > 0 ? Math.sqrt(varianza()) : -1;
+    }
+
+    /**
+     * @return Nota mínima, o -1 si no hay notas.
+     */
+    public double minimo() {
+        return totalNotas > 0 ? minimo : -1;
+    }
+
+    /**
+     * @return Nota máxima, o -1 si no hay notas.
+     */
+    public double maximo() {
+        return totalNotas > 0 ? maximo : -1;
+    }
+
+    /**
+     * @return Número de aprobados.
+     */
+    public long getAprobados() {
+        return aprobados;
+    }
+
+    /**
+     * @return Número de suspensos.
+     */
+    public long getSuspensos() {
+        return totalNotas - aprobados;
+    }
+
+    /**
+     * Devuelve cuántas notas hay en un intervalo del histograma.
+     * @param decimas Nota en décimas (0 a 100).
+     * @return Número de notas que redondean a esa décima.
+     */
+    public long notasEn(int decimas) {
+        return histograma[decimas];
+    }
+
+    /**
+     * @return Copia del histograma por décimas.
+     */
+    public long[] getHistograma() {
+        return histograma.clone();
+    }
+
+    /**
+     * Intervalo del histograma al que pertenece una nota.
+     * @param nota Nota (se acota a [0, 10]).
+     * @return Décima redondeada de la nota.
+     */
+    static int intervalo(double nota) {
+        int decimas = (int) Math.round(nota * 10);
+        return decimas < 0 ? 0 : decimas >= INTERVALOS ? INTERVALOS - 1 : decimas;
+    }
+
+    /**
+     * Devuelve una representación en cadena de las estadísticas.
+     * @return Cadena con las estadísticas.
+     */
+    @Override
+    public String toString() {
+        return "Notas: " + totalNotas + ", Media: " + media() + ", Desviación: " + desviacion()
+                + ", Mínimo: " + minimo() + ", Máximo: " + maximo()
+                + ", Aprobados: " + aprobados + ", Suspensos: " + getSuspensos();
+    }
+}
@@ -1,8 +1,15 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Scanner;
-
-import java.util.Arrays;
-import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 /**
  * Clase que representa un grupo de alumnos con asignaturas y notas asociadas.
@@ -10,11 +17,46 @@ import java.util.Scanner;
  */
 public class Grupo {
 
+    /** Se prepara la compactación cuando al menos 1 de cada FRACCION_BAJAS alumnos es una baja. */
+    static final int FRACCION_BAJAS = 4;
+
     private String nombreGrupo;       // Nombre del grupo
     private String[] alumnos;         // Array de nombres de los alumnos
     private Asignatura[] asignaturas; // Array de asignaturas del grupo
     private int totalAlumnos;                 // Total de alumnos en el grupo
     private int totalAsignaturas;             // Total de asignaturas en el grupo
+    private MatrizNotas matriz;               // Matriz contigua de notas (null si cada asignatura tiene su array)
+    private ForkJoinPool pool;                // Pool para los análisis en paralelo (null si son secuenciales)
+    private int umbralParalelo;               // Número mínimo de alumnos por tarea en paralelo
+    private IndiceAlumnos indiceAlumnos;      // Índice de nombres (null hasta la primera búsqueda)
+
+    // Bajas de alumnos: sus huecos se conservan hasta que se compacta el grupo.
+    private long[] bajas;                     // Bit i a 1 si el alumno i está dado de baja (null si no hay bajas)
+    private int totalBajas;                   // Número de alumnos dados de baja
+    private long cambios;                     // Cuenta los cambios del grupo, para validar una compactación preparada
+    private long estructura;                  // Cuenta los cambios de alumnos o asignaturas (no los de notas)
+    private volatile Compactacion compactacion; // Compactación preparada en segundo plano (o null)
+    private volatile boolean compactando;     // Indica si se está preparando una compactación
+
+    // Vista materializada por alumno, que se mantiene con los avisos de las asignaturas.
+    private double[] sumasAlumnos;            // Suma de las notas de cada alumno (null si no está construida)
+    private int[] suspensosAlumnos;           // Asignaturas suspensas de cada alumno
+    private long[] filasPendientes;           // Alumnos con alguna nota cambiada desde el último cálculo
+    private int totalPendientes;              // Número de bits a 1 en filasPendientes
+    private Asignatura[] observadas;          // Asignaturas en las que está registrado el oyente (o null)
+    private final OyenteNotas oyente = new OyenteNotas() {
+        @Override
+        public void notaCambiada(int alumno) {
+            cambios++;
+            marcarPendiente(alumno);
+        }
+
+        @Override
+        public void notasCambiadas() {
+            cambios++;
+            sumasAlumnos = null; // Se reconstruye entera en la próxima consulta.
+        }
+    };
 
     /**
      * Constructor por defecto.
@@ -45,6 +87,90 @@ public class Grupo {
         asignaturas = new Asignatura[totalAsignaturas];
     }
 
+    /**
+     * Constructor parametrizado que permite elegir el modo de almacenamiento.
+     * En modo matriz contigua el grupo guarda todas las notas en una única matriz
+     * y cada asignatura es una vista sobre su columna.
+     * @param nombreGrupo Nombre del grupo.
+     * @param totalAlumnos Total de alumnos en el grupo.
+     * @param totalAsignaturas Total de asignaturas en el grupo.
+     * @param matrizContigua true para guardar las notas en una matriz contigua.
+     */
+    public Grupo(String nombreGrupo, int totalAlumnos, int totalAsignaturas, boolean matrizContigua) {
+        this(nombreGrupo, totalAlumnos, totalAsignaturas);
+        if (matrizContigua) {
+            matriz = new MatrizNotas(totalAlumnos, totalAsignaturas);
+        }
+    }
+
+    /**
+     * Constructor a partir de los alumnos y las asignaturas ya creados.
+     * @param nombreGrupo Nombre del grupo.
+     * @param alumnos Nombres de los alumnos.
+     * @param asignaturas Asignaturas con una nota por alumno.
+     */
+    public Grupo(String nombreGrupo, String[] alumnos, Asignatura[] asignaturas) {
+        this.nombreGrupo = nombreGrupo;
+        this.alumnos = alumnos;
+        this.totalAlumnos = alumnos.length;
+        this.asignaturas = asignaturas;
+        this.totalAsignaturas = asignaturas.length;
+    }
+
+    /**
+     * Abre un grupo cuyas notas están en un fichero proyectado en memoria, sin cargarlas en el heap.
+     * El fichero contiene las notas como doubles little-endian, asignatura tras asignatura
+     * (totalAlumnos notas por asignatura). Si no existe se crea con todas las notas a 0.
+     * Los cambios de nota se escriben en el fichero.
+     * @param nombreGrupo Nombre del grupo.
+     * @param alumnos Nombres de los alumnos.
+     * @param nombresAsignaturas Nombres de las asignaturas.
+     * @param fichero Fichero con las notas.
+     * @return Grupo cuyas asignaturas leen y escriben directamente en el fichero.
+     * @throws IOException Si el fichero no se puede abrir o su tamaño no corresponde al grupo.
+     */
+    public static Grupo abrirMapeado(String nombreGrupo, String[] alumnos, String[] nombresAsignaturas,
+                                     Path fichero) throws IOException {
+        long medida = Metricas.inicio();
+        long bytesAsignatura = (long) alumnos.length * Double.BYTES;
+        if (bytesAsignatura > Integer.MAX_VALUE) {
+            throw new IOException("Demasiados alumnos para proyectar una asignatura: " + alumnos.length);
+        }
+        Asignatura[] asignaturas = new Asignatura[nombresAsignaturas.length];
+
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamano = bytesAsignatura * nombresAsignaturas.length;
+            if (canal.size() != 0 && canal.size() != tamano) {
+                throw new IOException("El fichero " + fichero + " tiene " + canal.size()
+                        + " bytes y se esperaban " + tamano);
+            }
+            // Cada asignatura se proyecta por separado (una proyección admite como máximo 2 GB)
+            for (int i = 0; i < nombresAsignaturas.length; i++) {
+                MappedByteBuffer region = canal.map(FileChannel.MapMode.READ_WRITE,
+                        i * bytesAsignatura, bytesAsignatura);
+                region.order(ByteOrder.LITTLE_ENDIAN);
+                asignaturas[i] = new Asignatura(nombresAsignaturas[i], new NotasMapeadas(region));
+            }
+        }
+        Grupo grupo = new Grupo(nombreGrupo, alumnos, asignaturas);
+        Metricas.fin(Metricas.Operacion.ABRIR_MAPEADO, medida);
+        return grupo;
+    }
+
+    /**
+     * Fuerza la escritura en disco de las notas de las asignaturas proyectadas en memoria.
+     */
+    public void sincronizarNotas() {
+        long medida = Metricas.inicio();
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null && asignaturas[i].getAlmacen() instanceof NotasMapeadas) {
+                ((NotasMapeadas) asignaturas[i].getAlmacen()).sincronizar();
+            }
+        }
+        Metricas.fin(Metricas.Operacion.SINCRONIZAR_NOTAS, medida);
+    }
+
     /**
      * Método privado para inicializar arrays con datos de ejemplo.
      * Este método es usado solo para pruebas.
@@ -89,16 +215,20 @@ public class Grupo {
             alumnos[i] = nombre;
         }
 
-        // Ordena alfabéticamente los nombres de los alumnos
-        Arrays.sort(alumnos);
+        // No se ordena el array: el índice de cada alumno debe coincidir con el de sus notas.
+        // El orden alfabético lo da el índice de nombres, que se reconstruye en la próxima búsqueda.
+        indiceAlumnos = null;
+        estructura++;
     }
 
     /**
      * Muestra en consola los nombres de todos los alumnos del grupo.
      */
     public void mostrarAlumnos() {
-        for (int i = 0; i < alumnos.length; i++) {
-            System.out.println("Alumno " + (i + 1) + ": " + alumnos[i]);
+        for (int i = 0; i < totalAlumnos; i++) {
+            if (!alumnoDadoDeBaja(i)) {
+                System.out.println("Alumno " + (i + 1) + ": " + alumnos[i]);
+            }
         }
     }
 
@@ -110,40 +240,749 @@ public class Grupo {
         Scanner sc = new Scanner(System.in);
         String nombreAsig;
 
-        for (int i = 0; i < asignaturas.length; i++) {
+        for (int i = 0; i < totalAsignaturas; i++) {
             System.out.print("Nombre de la asignatura " + (i + 1) + ": ");
             nombreAsig = sc.nextLine();
+            descartarVista(); // Cambian las asignaturas observadas.
+            estructura++;
             asignaturas[i] = new Asignatura(nombreAsig);
             asignaturas[i].leerNotas(totalAlumnos); // Lee las notas de la asignatura.
+            if (matriz != null) {
+                asignaturas[i].usarAlmacen(matriz.columna(i)); // Pasa las notas a la matriz.
+            }
         }
     }
 
     /**
-     * Muestra los nombres de las asignaturas del grupo.
+     * Pasa el grupo al modo matriz contigua: copia las notas de todas las asignaturas
+     * a una única matriz y convierte cada asignatura en una vista sobre ella.
+     * @return true si se ha podido cambiar el modo, false si falta alguna asignatura o nota.
      */
-    public void mostrarAsignaturas() {
+    public boolean usarMatrizContigua() {
+        if (matriz != null) {
+            return true;
+        }
+        if (!notasCompletas()) {
+            System.out.println("[!] Faltan notas para crear la matriz");
+            return false;
+        }
+        long medida = Metricas.inicio();
+        matriz = new MatrizNotas(totalAlumnos, totalAsignaturas);
         for (int i = 0; i < totalAsignaturas; i++) {
-            System.out.println(asignaturas[i].getNombreAsignatura());
+            asignaturas[i].usarAlmacen(matriz.columna(i));
         }
+        Metricas.fin(Metricas.Operacion.CAMBIAR_ALMACEN, medida);
+        return true;
     }
 
     /**
-     * Muestra la media de las notas de cada asignatura.
+     * @return true si todas las asignaturas existen y tienen la nota de todos los alumnos.
      */
-    public void mostrarMedias() {
-        StringBuilder sb = new StringBuilder();
+    private boolean notasCompletas() {
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] == null || asignaturas[i].totalNotas() != totalAlumnos) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        // Encabezado con los nombres de las asignaturas
+    /**
+     * Da de alta un alumno al final del grupo con su nota en cada asignatura. Cada nota se
+     * añade al final del almacén de su asignatura (uno compacto sigue siéndolo; los demás pasan
+     * a guardarse por segmentos), así que no se copia ninguna asignatura; el array de nombres y la vista por alumno duplican su
+     * tamaño cuando se llenan, y el coste es O(asignaturas) amortizado.
+     * Si el grupo usaba la matriz contigua la abandona.
+     * @param nombre Nombre del alumno.
+     * @param notas Nota del alumno en cada asignatura, en el orden de las asignaturas.
+     * @return Índice del alumno nuevo, o -1 si los datos no son válidos.
+     */
+    public int añadirAlumno(String nombre, double... notas) {
+        if (nombre == null || nombre.equals("") || notas.length != totalAsignaturas) {
+            System.out.println("[!] Hace falta un nombre y una nota por asignatura");
+            return -1;
+        }
+        for (double nota : notas) {
+            if (!(nota >= 0 && nota <= 10)) { // NaN no pasa.
+                System.out.println("[!] Nota incorrecta (0..10): " + nota);
+                return -1;
+            }
+        }
+        if (!notasCompletas()) {
+            System.out.println("[!] Faltan notas para añadir alumnos");
+            return -1;
+        }
+        long medida = Metricas.inicio();
+        int alumno = totalAlumnos;
+        if (alumno == alumnos.length) {
+            alumnos = Arrays.copyOf(alumnos, Math.max(8, alumno * 2));
+        }
+        alumnos[alumno] = nombre;
+        if (sumasAlumnos != null) {
+            ampliarVista(alumno + 1); // Antes de añadir las notas: cada asignatura marca la fila nueva.
+        }
+        matriz = null; // Las columnas siguen siendo válidas, pero la matriz ya no tiene todas las filas.
+        totalAlumnos++;
         for (int j = 0; j < totalAsignaturas; j++) {
-            sb.append(String.format("%-10s", asignaturas[j].getNombreAsignatura()));
+            asignaturas[j].añadirNota(notas[j]);
+        }
+        indiceAlumnos = null;
+        cambios++;
+        estructura++;
+        Metricas.fin(Metricas.Operacion.ALTA_ALUMNO, medida);
+        return alumno;
+    }
+
+    /**
+     * Añade una asignatura al final del grupo. Necesita la nota de cada hueco de alumno,
+     * también de los dados de baja (se descartan al compactar). El array de asignaturas duplica
+     * su tamaño cuando se llena. Si el grupo usaba la matriz contigua la abandona, y si sus
+     * asignaturas son concurrentes la nueva también lo es.
+     * @param nombre Nombre de la asignatura.
+     * @param notas Nota de cada alumno (se copian).
+     * @return Índice de la asignatura nueva, o -1 si las notas no son válidas.
+     */
+    public int añadirAsignatura(String nombre, double[] notas) {
+        if (notas.length != totalAlumnos) {
+            System.out.println("[!] Se esperaba una nota por alumno: " + notas.length + " != " + totalAlumnos);
+            return -1;
+        }
+        for (double nota : notas) {
+            if (!(nota >= 0 && nota <= 10)) {
+                System.out.println("[!] Nota incorrecta (0..10): " + nota);
+                return -1;
+            }
+        }
+        long medida = Metricas.inicio();
+        int indice = totalAsignaturas;
+        if (indice == asignaturas.length) {
+            asignaturas = Arrays.copyOf(asignaturas, Math.max(4, indice * 2));
+        }
+        boolean concurrentes = indice > 0 && asignaturas[0] instanceof AsignaturaConcurrente;
+        descartarVista(); // Cambian todas las sumas y hay que observar también la asignatura nueva.
+        asignaturas[indice] = concurrentes ? new AsignaturaConcurrente(nombre, notas.clone())
+                : new Asignatura(nombre, notas.clone());
+        matriz = null;
+        totalAsignaturas++;
+        cambios++;
+        estructura++;
+        Metricas.fin(Metricas.Operacion.ALTA_ASIGNATURA, medida);
+        return indice;
+    }
+
+    /**
+     * Da de baja a un alumno. No se mueve ningún dato, así que los índices de los demás no cambian:
+     * su hueco queda marcado y deja de contar en los análisis por alumno (medias, mejores y peores,
+     * repetidores, consultas, máscaras de suspensos, análisis del curso, búsquedas e informes).
+     * Las estadísticas de cada asignatura siguen incluyendo su nota hasta que se compacta el grupo.
+     * Cuando las bajas llegan a una de cada FRACCION_BAJAS plazas se empieza a preparar la
+     * compactación en segundo plano (ver compactarAlumnos).
+     * @param indice Índice del alumno.
+     * @return true si se ha dado de baja, false si el índice no es válido o ya estaba de baja.
+     */
+    public boolean eliminarAlumno(int indice) {
+        if (!alumnoActivo(indice)) {
+            System.out.println("[!] Indice no Válido");
+            return false;
+        }
+        long medida = Metricas.inicio();
+        if (bajas == null || indice >>> 6 >= bajas.length) {
+            int palabras = (alumnos.length + 63) >>> 6;
+            bajas = bajas == null ? new long[palabras] : Arrays.copyOf(bajas, palabras);
         }
-        sb.append("\n");
+        bajas[indice >>> 6] |= 1L << indice;
+        totalBajas++;
+        indiceAlumnos = null;
+        cambios++;
+        estructura++;
+        if ((long) totalBajas * FRACCION_BAJAS >= totalAlumnos) {
+            programarCompactacion();
+        }
+        Metricas.fin(Metricas.Operacion.BAJA_ALUMNO, medida);
+        return true;
+    }
 
-        // Media de las notas de cada asignatura
+    /**
+     * Marca de una vez los alumnos dados de baja de un grupo recién cargado, sin mensajes en
+     * consola ni compactación en segundo plano, para que quede igual que cuando se guardó.
+     * @param huecos Bit i a 1 si el alumno i está dado de baja (índices ya validados).
+     * @param total Número de bits a 1.
+     */
+    void restaurarBajas(long[] huecos, int total) {
+        bajas = total > 0 ? huecos : null;
+        totalBajas = total;
+        indiceAlumnos = null;
+        cambios++;
+        estructura++;
+    }
+
+    /**
+     * Devuelve un contador que cambia cada vez que cambian los alumnos o las asignaturas del grupo
+     * (altas, bajas, compactación, nombres o asignaturas nuevas), pero no con los cambios de nota.
+     * @return Versión de la estructura del grupo.
+     */
+    long versionEstructura() {
+        return estructura;
+    }
+
+    /**
+     * Indica si un alumno está dado de baja (y el grupo aún no se ha compactado).
+     * @param indice Índice del alumno.
+     * @return true si el alumno está dado de baja.
+     */
+    public boolean alumnoDadoDeBaja(int indice) {
+        long[] huecos = bajas;
+        return huecos != null && indice >>> 6 < huecos.length && (huecos[indice >>> 6] & 1L << indice) != 0;
+    }
+
+    /**
+     * @return Número de alumnos dados de baja pendientes de compactar.
+     */
+    public int getTotalBajas() {
+        return totalBajas;
+    }
+
+    /**
+     * Indica si un índice corresponde a un alumno que sigue en el grupo.
+     * @param indice Índice del alumno.
+     * @return true si el índice es válido y el alumno no está dado de baja.
+     */
+    private boolean alumnoActivo(int indice) {
+        return indice >= 0 && indice < totalAlumnos && !alumnoDadoDeBaja(indice);
+    }
+
+    /**
+     * Compacta el grupo quitando los huecos de las bajas: los alumnos que siguen pasan a ocupar
+     * posiciones consecutivas, en el mismo orden, y cada asignatura pasa a un almacén nuevo sin
+     * las notas de las bajas, del mismo tipo que el que tenía: si el grupo usa la matriz contigua
+     * se crea una matriz nueva, las asignaturas compactas siguen en décimas y las proyectadas en
+     * memoria se compactan dentro de su misma región del fichero, que conserva su tamaño.
+     * Si hay una compactación preparada en segundo plano y el grupo no ha cambiado desde
+     * entonces (ni sus notas ni sus almacenes), solo se instala; si no, se hace ahora.
+     * Como cambia los índices de los alumnos, nunca se instala sola: la instala esta llamada.
+     * @return Índice nuevo de cada alumno anterior (-1 para los dados de baja), o null si alguna
+     *         asignatura no tiene la nota de todos los alumnos.
+     */
+    public int[] compactarAlumnos() {
+        if (!columnasCompactables()) {
+            System.out.println("[!] Hay asignaturas sin la nota de todos los alumnos: no se puede compactar");
+            return null;
+        }
+        long medida = Metricas.inicio();
+        Compactacion preparada = compactacion;
+        compactacion = null;
+        AlmacenNotas[] almacenes = almacenes();
+        if (preparada == null || !preparada.vigente(cambios, almacenes, matriz != null)) {
+            preparada = new Compactacion(cambios, alumnos, totalAlumnos, bajas, almacenes, almacenes,
+                    matriz != null);
+        }
+        alumnos = preparada.alumnos;
+        totalAlumnos = preparada.alumnos.length;
+        bajas = null;
+        totalBajas = 0;
+        matriz = preparada.matriz;
+        indiceAlumnos = null;
         for (int j = 0; j < totalAsignaturas; j++) {
-            sb.append(String.format("%-10s", asignaturas[j].media()));
+            if (almacenes[j] instanceof NotasMapeadas) {
+                // No se puede preparar antes: se sobrescriben las notas que el grupo estaba usando
+                asignaturas[j].reemplazarAlmacen(
+                        ((NotasMapeadas) almacenes[j]).compactar(preparada.nuevosIndices, totalAlumnos));
+            } else if (preparada.columnas[j] != null) {
+                asignaturas[j].reemplazarAlmacen(preparada.columnas[j]);
+            }
+        }
+        sumasAlumnos = null;
+        cambios++;
+        estructura++;
+        Metricas.fin(Metricas.Operacion.COMPACTAR_ALUMNOS, medida);
+        return preparada.nuevosIndices;
+    }
+
+    /**
+     * @return true si todas las asignaturas con notas tienen la nota de todos los alumnos.
+     */
+    private boolean columnasCompactables() {
+        for (int j = 0; j < totalAsignaturas; j++) {
+            if (asignaturas[j] != null && asignaturas[j].getAlmacen() != null
+                    && asignaturas[j].getAlmacen().longitud() != totalAlumnos) {
+                return false;
+            }
         }
-        System.out.println(sb);
+        return true;
+    }
+
+    /**
+     * Empieza a preparar la compactación en el pool del grupo (o en el común) si no hay ya una
+     * preparada y al día o en curso. Los almacenes no admiten lecturas mientras otro hilo los
+     * cambia, así que en este hilo se copian los nombres, las bajas y las notas de cada asignatura
+     * (una copia plana, sin reordenar) y la tarea solo lee esas copias; si mientras tanto cambia
+     * algo del grupo, la compactación preparada se descarta al instalarla. No se prepara si alguna
+     * asignatura es concurrente o falta, porque entonces los cambios de nota no se pueden seguir,
+     * ni si alguna no tiene todas las notas.
+     */
+    private void programarCompactacion() {
+        Compactacion preparada = compactacion;
+        if (compactando || (preparada != null && preparada.cambios == cambios) || !observarAsignaturas()
+                || !columnasCompactables()) {
+            return;
+        }
+        long version = cambios;
+        String[] nombres = Arrays.copyOf(alumnos, totalAlumnos);
+        long[] huecos = bajas.clone();
+        AlmacenNotas[] almacenes = almacenes();
+        AlmacenNotas[] copias = new AlmacenNotas[almacenes.length];
+        for (int j = 0; j < almacenes.length; j++) {
+            if (almacenes[j] != null && !(almacenes[j] instanceof NotasMapeadas)) {
+                copias[j] = copiar(almacenes[j]);
+            }
+        }
+        boolean conMatriz = matriz != null;
+        compactando = true;
+        (pool != null ? pool : ForkJoinPool.commonPool()).execute(() -> {
+            try {
+                compactacion = new Compactacion(version, nombres, nombres.length, huecos, almacenes, copias,
+                        conMatriz);
+            } finally {
+                compactando = false;
+            }
+        });
+    }
+
+    /**
+     * Copia las notas de un almacén a uno privado que no cambia: las décimas si es compacto
+     * (para no volver a redondear) y las notas en un array en cualquier otro caso.
+     * @param almacen Almacén de una asignatura.
+     * @return Copia de sus notas.
+     */
+    private static AlmacenNotas copiar(AlmacenNotas almacen) {
+        if (almacen instanceof NotasCompactas) {
+            return new NotasCompactas(Arrays.copyOf(((NotasCompactas) almacen).decimas(), almacen.longitud()));
+        }
+        double[] notas = new double[almacen.longitud()];
+        for (int i = 0; i < notas.length; i++) {
+            notas[i] = almacen.nota(i);
+        }
+        return new NotasArray(notas);
+    }
+
+    /**
+     * @return Almacén de notas de cada asignatura (null si la asignatura no existe o no tiene notas).
+     */
+    private AlmacenNotas[] almacenes() {
+        AlmacenNotas[] almacenes = new AlmacenNotas[totalAsignaturas];
+        for (int j = 0; j < totalAsignaturas; j++) {
+            almacenes[j] = asignaturas[j] != null ? asignaturas[j].getAlmacen() : null;
+        }
+        return almacenes;
+    }
+
+    /**
+     * Nombres y notas de un grupo sin los alumnos dados de baja, listos para sustituir a los del
+     * grupo. Solo sirve si desde que se preparó no ha cambiado el contador de cambios del grupo
+     * ni el almacén de ninguna asignatura.
+     */
+    private static final class Compactacion {
+
+        private final long cambios;             // Contador de cambios del grupo al prepararla.
+        private final AlmacenNotas[] origen;    // Almacenes de los que se han leído las notas.
+        private final String[] alumnos;         // Nombres de los alumnos que siguen.
+        private final MatrizNotas matriz;       // Matriz nueva (null si el grupo no usaba la matriz).
+        private final AlmacenNotas[] columnas;  // Notas de cada asignatura sin las bajas (null si no se toca).
+        private final int[] nuevosIndices;      // Índice nuevo de cada alumno (-1 para las bajas).
+
+        /**
+         * @param almacenes Almacén actual de cada asignatura: decide el tipo del almacén nuevo.
+         * @param notas De dónde se leen las notas de cada asignatura: los mismos almacenes o
+         *              copias suyas que no cambian (null para las proyectadas en memoria).
+         */
+        Compactacion(long cambios, String[] nombres, int total, long[] bajas, AlmacenNotas[] almacenes,
+                     AlmacenNotas[] notas, boolean conMatriz) {
+            this.cambios = cambios;
+            this.origen = almacenes;
+            this.nuevosIndices = new int[total];
+            int siguen = 0;
+            for (int i = 0; i < total; i++) {
+                boolean baja = bajas != null && i >>> 6 < bajas.length && (bajas[i >>> 6] & 1L << i) != 0;
+                nuevosIndices[i] = baja ? -1 : siguen++;
+            }
+            this.alumnos = new String[siguen];
+            for (int i = 0; i < total; i++) {
+                if (nuevosIndices[i] >= 0) {
+                    alumnos[nuevosIndices[i]] = nombres[i];
+                }
+            }
+            this.matriz = conMatriz ? new MatrizNotas(siguen, almacenes.length) : null;
+            this.columnas = new AlmacenNotas[almacenes.length];
+            for (int j = 0; j < almacenes.length; j++) {
+                if (almacenes[j] != null && !(almacenes[j] instanceof NotasMapeadas)) {
+                    columnas[j] = compactar(almacenes[j], notas[j], j, siguen);
+                }
+            }
+        }
+
+        /**
+         * Copia las notas de los alumnos que siguen a un almacén nuevo del mismo tipo.
+         * @param almacen Almacén de la asignatura.
+         * @param notas Notas de la asignatura: el almacén o una copia suya (compacta si él lo es).
+         * @param asignatura Índice de la asignatura (su columna en la matriz nueva).
+         * @param siguen Número de alumnos que siguen.
+         * @return Almacén nuevo sin las notas de las bajas.
+         */
+        private AlmacenNotas compactar(AlmacenNotas almacen, AlmacenNotas notas, int asignatura, int siguen) {
+            if (matriz != null) {
+                AlmacenNotas columna = matriz.columna(asignatura);
+                for (int i = 0; i < nuevosIndices.length; i++) {
+                    if (nuevosIndices[i] >= 0) {
+                        columna.ponerNota(nuevosIndices[i], notas.nota(i));
+                    }
+                }
+                return columna;
+            }
+            if (almacen instanceof NotasCompactas) {
+                // Se copian las décimas tal cual, sin volver a redondear
+                byte[] decimas = ((NotasCompactas) notas).decimas();
+                byte[] quedan = new byte[siguen];
+                for (int i = 0; i < nuevosIndices.length; i++) {
+                    if (nuevosIndices[i] >= 0) {
+                        quedan[nuevosIndices[i]] = decimas[i];
+                    }
+                }
+                return new NotasCompactas(quedan);
+            }
+            if (almacen instanceof NotasSegmentadas) {
+                NotasSegmentadas columna = new NotasSegmentadas();
+                for (int i = 0; i < nuevosIndices.length; i++) {
+                    if (nuevosIndices[i] >= 0) {
+                        columna.añadir(notas.nota(i));
+                    }
+                }
+                return columna;
+            }
+            double[] quedan = new double[siguen];
+            for (int i = 0; i < nuevosIndices.length; i++) {
+                if (nuevosIndices[i] >= 0) {
+                    quedan[nuevosIndices[i]] = notas.nota(i);
+                }
+            }
+            return new NotasArray(quedan);
+        }
+
+        /**
+         * Indica si la compactación sigue sirviendo para el estado actual del grupo.
+         * @param cambiosGrupo Contador de cambios actual del grupo.
+         * @param almacenes Almacén actual de cada asignatura.
+         * @param conMatriz true si el grupo usa ahora la matriz contigua.
+         * @return true si se puede instalar tal cual.
+         */
+        boolean vigente(long cambiosGrupo, AlmacenNotas[] almacenes, boolean conMatriz) {
+            if (cambios != cambiosGrupo || (matriz != null) != conMatriz || origen.length != almacenes.length) {
+                return false;
+            }
+            for (int j = 0; j < almacenes.length; j++) {
+                if (origen[j] != almacenes[j]) {
+                    return false; // La asignatura ha cambiado de almacén (compacto, matriz, concurrente...).
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Convierte las asignaturas del grupo en asignaturas concurrentes, que admiten cambios
+     * de nota y consultas desde varios hilos a la vez con un cerrojo por asignatura.
+     * Conservan el mismo almacén de notas. Debe llamarse antes de compartir el grupo entre hilos.
+     */
+    public void usarAsignaturasConcurrentes() {
+        long medida = Metricas.inicio();
+        descartarVista(); // Con escritores en varios hilos la vista no se mantiene.
+        estructura++;
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null && !(asignaturas[i] instanceof AsignaturaConcurrente)) {
+                asignaturas[i] = new AsignaturaConcurrente(asignaturas[i].getNombreAsignatura(),
+                        asignaturas[i].getAlmacen());
+            }
+        }
+        Metricas.fin(Metricas.Operacion.CAMBIAR_ALMACEN, medida);
+    }
+
+    /**
+     * Pasa todas las asignaturas del grupo a almacenamiento compacto (notas en décimas,
+     * un byte por nota). Si el grupo usaba la matriz contigua, la abandona.
+     */
+    public void compactarNotas() {
+        long medida = Metricas.inicio();
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null) {
+                asignaturas[i].compactar();
+            }
+        }
+        matriz = null;
+        Metricas.fin(Metricas.Operacion.COMPACTAR_NOTAS, medida);
+    }
+
+    /**
+     * Devuelve el nombre del grupo.
+     * @return Nombre del grupo.
+     */
+    public String getNombreGrupo() {
+        return nombreGrupo;
+    }
+
+    /**
+     * @return Total de alumnos del grupo.
+     */
+    public int getTotalAlumnos() {
+        return totalAlumnos;
+    }
+
+    /**
+     * @return Total de asignaturas del grupo.
+     */
+    public int getTotalAsignaturas() {
+        return totalAsignaturas;
+    }
+
+    /**
+     * Devuelve el nombre de un alumno.
+     * @param indice Índice del alumno.
+     * @return Nombre del alumno.
+     */
+    public String getAlumno(int indice) {
+        return alumnos[indice];
+    }
+
+    /**
+     * Busca un alumno por su nombre exacto.
+     * @param nombre Nombre del alumno.
+     * @return Índice del alumno (el menor si el nombre está repetido), o -1 si no existe.
+     */
+    public int buscarAlumno(String nombre) {
+        long medida = Metricas.inicio();
+        int indice = indiceAlumnos().buscar(nombre);
+        Metricas.fin(Metricas.Operacion.BUSCAR_ALUMNO, medida);
+        return indice;
+    }
+
+    /**
+     * Busca los alumnos cuyo nombre empieza por un prefijo.
+     * @param prefijo Prefijo del nombre (distingue mayúsculas).
+     * @return Índices de los alumnos encontrados, ordenados alfabéticamente.
+     */
+    public int[] buscarAlumnosPorPrefijo(String prefijo) {
+        long medida = Metricas.inicio();
+        int[] indices = indiceAlumnos().buscarPrefijo(prefijo);
+        Metricas.fin(Metricas.Operacion.BUSCAR_ALUMNO, medida);
+        return indices;
+    }
+
+    /**
+     * @return Índices de todos los alumnos ordenados alfabéticamente por nombre.
+     */
+    public int[] alumnosEnOrdenAlfabetico() {
+        long medida = Metricas.inicio();
+        int[] indices = indiceAlumnos().ordenAlfabetico();
+        Metricas.fin(Metricas.Operacion.BUSCAR_ALUMNO, medida);
+        return indices;
+    }
+
+    /**
+     * Devuelve el índice de nombres, construyéndolo si aún no existe.
+     * @return Índice de nombres de los alumnos.
+     */
+    private IndiceAlumnos indiceAlumnos() {
+        if (indiceAlumnos == null) {
+            String[] nombres = alumnos;
+            if (totalBajas > 0) {
+                nombres = Arrays.copyOf(alumnos, totalAlumnos); // Las bajas no se indexan.
+                for (int i = 0; i < totalAlumnos; i++) {
+                    if (alumnoDadoDeBaja(i)) {
+                        nombres[i] = null;
+                    }
+                }
+            }
+            indiceAlumnos = new IndiceAlumnos(nombres, totalAlumnos);
+        }
+        return indiceAlumnos;
+    }
+
+    /**
+     * Devuelve una asignatura del grupo.
+     * @param indice Índice de la asignatura.
+     * @return Asignatura (null si aún no se ha leído).
+     */
+    public Asignatura getAsignatura(int indice) {
+        return asignaturas[indice];
+    }
+
+    /**
+     * @return true si las notas del grupo están en la matriz contigua.
+     */
+    public boolean usaMatrizContigua() {
+        return matriz != null;
+    }
+
+    /**
+     * Activa el modo paralelo para los análisis por alumno (medias, mejor alumno,
+     * repetidores y análisis del curso). Los resultados son idénticos a los del modo secuencial.
+     * @param pool Pool fork/join en el que se ejecutan los cálculos.
+     * @param umbral Número de alumnos a partir del cual se reparte el trabajo;
+     *               también es el tamaño mínimo de cada tarea.
+     */
+    public void activarParalelismo(ForkJoinPool pool, int umbral) {
+        this.pool = pool;
+        this.umbralParalelo = Math.max(1, umbral);
+    }
+
+    /**
+     * Vuelve al modo secuencial para los análisis por alumno.
+     */
+    public void desactivarParalelismo() {
+        this.pool = null;
+    }
+
+    /**
+     * Indica si los análisis por alumno deben ejecutarse en paralelo.
+     * @return true si el paralelismo está activo y hay alumnos suficientes.
+     */
+    private boolean usarParalelismo() {
+        return pool != null && totalAlumnos > umbralParalelo;
+    }
+
+    /**
+     * Aplica una acción a cada alumno repartiendo el trabajo en el pool fork/join.
+     * @param accion Acción que recibe el índice de cada alumno.
+     */
+    private void paraCadaAlumnoEnParalelo(IntConsumer accion) {
+        pool.invoke(new RecorridoParalelo(accion, 0, totalAlumnos, umbralParalelo));
+    }
+
+    /**
+     * Calcula la media de todos los alumnos, en paralelo si está activado.
+     * @return Array con la media de cada alumno.
+     */
+    private double[] calcularMediasAlumnos() {
+        double[] medias = new double[totalAlumnos];
+        actualizarVista(); // Después, las tareas en paralelo solo leen la vista.
+        if (usarParalelismo()) {
+            paraCadaAlumnoEnParalelo(i -> medias[i] = mediaSiActivo(i));
+        } else {
+            for (int i = 0; i < totalAlumnos; i++) {
+                medias[i] = mediaSiActivo(i);
+            }
+        }
+        return medias;
+    }
+
+    /**
+     * @param indice Índice del alumno.
+     * @return Media del alumno, o NaN si está dado de baja.
+     */
+    private double mediaSiActivo(int indice) {
+        return alumnoDadoDeBaja(indice) ? Double.NaN : mediaAlumno(indice);
+    }
+
+    /**
+     * Calcula las medias de los alumnos que siguen en el grupo, sin huecos para las bajas.
+     * @return Array con la media de cada alumno activo, en orden.
+     */
+    private double[] calcularMediasActivos() {
+        double[] medias = calcularMediasAlumnos();
+        if (totalBajas == 0) {
+            return medias;
+        }
+        double[] activos = new double[totalAlumnos - totalBajas];
+        for (int i = 0, p = 0; i < totalAlumnos; i++) {
+            if (!alumnoDadoDeBaja(i)) {
+                activos[p++] = medias[i];
+            }
+        }
+        return activos;
+    }
+
+    /**
+     * Cambia un lote de notas de la matriz del grupo: la entrada k pone la nota notas[k]
+     * al alumno alumnos[k] en la asignatura asignaturas[k]. Las entradas se reparten por
+     * asignatura y cada asignatura aplica su parte con un único cambio en lote.
+     * @param asignaturas Índices de las asignaturas.
+     * @param alumnos Índices de los alumnos.
+     * @param notas Nuevas notas.
+     * @return Posiciones del lote rechazadas.
+     */
+    public BitSet cambiarNotas(int[] asignaturas, int[] alumnos, double[] notas) {
+        if (asignaturas.length != alumnos.length || alumnos.length != notas.length) {
+            throw new IllegalArgumentException("Los tres arrays del lote deben tener la misma longitud");
+        }
+        long medida = Metricas.inicio();
+        BitSet rechazadas = new BitSet(notas.length);
+
+        // Cuenta las entradas de cada asignatura (las de asignaturas inexistentes se rechazan)
+        int[] inicio = new int[totalAsignaturas + 1];
+        for (int k = 0; k < asignaturas.length; k++) {
+            int asignatura = asignaturas[k];
+            if (asignatura < 0 || asignatura >= totalAsignaturas || this.asignaturas[asignatura] == null) {
+                rechazadas.set(k);
+            } else {
+                inicio[asignatura + 1]++;
+            }
+        }
+        for (int j = 0; j < totalAsignaturas; j++) {
+            inicio[j + 1] += inicio[j];
+        }
+
+        // Reparte las posiciones del lote por asignatura (ordenación por recuento)
+        int[] posiciones = new int[inicio[totalAsignaturas]];
+        int[] siguiente = Arrays.copyOf(inicio, totalAsignaturas);
+        for (int k = 0; k < asignaturas.length; k++) {
+            if (!rechazadas.get(k)) {
+                posiciones[siguiente[asignaturas[k]]++] = k;
+            }
+        }
+
+        // Aplica el lote de cada asignatura
+        for (int j = 0; j < totalAsignaturas; j++) {
+            int tamano = inicio[j + 1] - inicio[j];
+            if (tamano == 0) {
+                continue;
+            }
+            int[] alumnosAsignatura = new int[tamano];
+            double[] notasAsignatura = new double[tamano];
+            for (int p = 0; p < tamano; p++) {
+                int k = posiciones[inicio[j] + p];
+                alumnosAsignatura[p] = alumnos[k];
+                notasAsignatura[p] = notas[k];
+            }
+            BitSet rechazadasAsignatura = this.asignaturas[j].cambiarNotas(alumnosAsignatura, notasAsignatura);
+            for (int p = rechazadasAsignatura.nextSetBit(0); p >= 0; p = rechazadasAsignatura.nextSetBit(p + 1)) {
+                rechazadas.set(posiciones[inicio[j] + p]);
+            }
+        }
+        Metricas.fin(Metricas.Operacion.CAMBIAR_NOTAS_GRUPO, medida);
+        return rechazadas;
+    }
+
+    /**
+     * Muestra los nombres de las asignaturas del grupo.
+     */
+    public void mostrarAsignaturas() {
+        for (int i = 0; i < totalAsignaturas; i++) {
+            System.out.println(asignaturas[i].getNombreAsignatura());
+        }
+    }
+
+    /**
+     * Muestra la media de las notas de cada asignatura.
+     */
+    public void mostrarMedias() {
+        long medida = Metricas.inicio();
+        InformeGrupo.SalidaPorBloques salida = new InformeGrupo.SalidaPorBloques(System.out);
+        try {
+            new InformeGrupo(salida).mediasAsignaturas(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // No ocurre: la salida no lanza excepciones.
+        }
+        salida.vaciar();
+        System.out.println();
+        Metricas.fin(Metricas.Operacion.MUESTRA_MEDIAS, medida);
     }
 
     /**
@@ -151,6 +990,7 @@ public class Grupo {
      * @return Nombre de la asignatura con la nota mínima más baja.
      */
     public String dameAsignaturaMinima() {
+        long medida = Metricas.inicio();
         double notaMinima = Integer.MAX_VALUE;
         String res = "";
 
@@ -160,6 +1000,7 @@ public class Grupo {
                 res = asignaturas[i].getNombreAsignatura();
             }
         }
+        Metricas.fin(Metricas.Operacion.ASIGNATURA_EXTREMA, medida);
         return res;
     }
 
@@ -168,6 +1009,7 @@ public class Grupo {
      * @return Nombre de la asignatura con la nota máxima más alta.
      */
     public String dameAsignaturaMaxima() {
+        long medida = Metricas.inicio();
         double notaMaxima = Integer.MIN_VALUE;
         String res = "";
 
@@ -177,6 +1019,7 @@ public class Grupo {
                 res = asignaturas[i].getNombreAsignatura();
             }
         }
+        Metricas.fin(Metricas.Operacion.ASIGNATURA_EXTREMA, medida);
         return res;
     }
 
@@ -188,6 +1031,7 @@ public class Grupo {
      * @return Media de la asignatura si el índice es válido, -1 en caso contrario.
      */
     public double dameMediaAsignatura(int indice) {
+        long medida = Metricas.inicio();
         double media = -1;
 
         // Validación del índice
@@ -197,9 +1041,164 @@ public class Grupo {
             // Calcula la media usando el método de la clase Asignatura
             media = asignaturas[indice].media();
         }
+        Metricas.fin(Metricas.Operacion.MEDIA_ASIGNATURA, medida);
         return media;
     }
 
+    /**
+     * Devuelve la nota de un alumno en una asignatura, leyendo de la matriz si el grupo la usa.
+     * @param alumno Índice del alumno.
+     * @param asignatura Índice de la asignatura.
+     * @return Nota del alumno o -1 si no hay notas.
+     */
+    double notaAlumno(int alumno, int asignatura) {
+        return matriz != null ? matriz.nota(alumno, asignatura) : asignaturas[asignatura].notaAlumno(alumno);
+    }
+
+    /**
+     * Suma las notas de un alumno (índice válido) en todas las asignaturas.
+     * @param indice Índice del alumno.
+     * @return Suma de sus notas.
+     */
+    double sumaNotasAlumno(int indice) {
+        return actualizarVista() ? sumasAlumnos[indice] : calcularSumaAlumno(indice);
+    }
+
+    /**
+     * Cuenta las asignaturas suspensas de un alumno (índice válido).
+     * @param indice Índice del alumno.
+     * @return Número de asignaturas con nota menor que 5.
+     */
+    int suspensosAlumno(int indice) {
+        return actualizarVista() ? suspensosAlumnos[indice] : calcularSuspensosAlumno(indice);
+    }
+
+    /**
+     * Pone al día la vista materializada por alumno (suma de notas y suspensos): la construye
+     * si no existe y recalcula solo las filas de los alumnos con alguna nota cambiada.
+     * No se usa si alguna asignatura es concurrente (sus cambios pueden llegar desde varios
+     * hilos a la vez) o si falta alguna asignatura.
+     * @return true si la vista está al día, false si hay que calcular sin ella.
+     */
+    boolean actualizarVista() {
+        if (sumasAlumnos != null) {
+            if (totalPendientes > 0) {
+                recalcularPendientes();
+            }
+            return true;
+        }
+        if (!observarAsignaturas()) {
+            return false;
+        }
+        double[] sumas = new double[totalAlumnos];
+        int[] suspensos = new int[totalAlumnos];
+        for (int i = 0; i < totalAlumnos; i++) {
+            sumas[i] = calcularSumaAlumno(i);
+            suspensos[i] = calcularSuspensosAlumno(i);
+        }
+        suspensosAlumnos = suspensos;
+        filasPendientes = new long[(totalAlumnos + 63) >>> 6];
+        totalPendientes = 0;
+        sumasAlumnos = sumas;
+        return true;
+    }
+
+    /**
+     * Registra el oyente del grupo en todas las asignaturas si aún no lo está. No se registra
+     * si falta alguna asignatura o alguna es concurrente (sus cambios pueden llegar desde
+     * varios hilos a la vez).
+     * @return true si el grupo está observando sus asignaturas.
+     */
+    private boolean observarAsignaturas() {
+        if (observadas == null) {
+            for (int j = 0; j < totalAsignaturas; j++) {
+                if (asignaturas[j] == null || asignaturas[j] instanceof AsignaturaConcurrente) {
+                    return false;
+                }
+            }
+            observadas = Arrays.copyOf(asignaturas, totalAsignaturas);
+            for (Asignatura asignatura : observadas) {
+                asignatura.añadirOyente(oyente);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Amplía los arrays de la vista para que quepan más alumnos, duplicando su tamaño.
+     * @param alumnos Número de alumnos que deben caber.
+     */
+    private void ampliarVista(int alumnos) {
+        if (alumnos > sumasAlumnos.length) {
+            int capacidad = Math.max(alumnos, sumasAlumnos.length * 2);
+            sumasAlumnos = Arrays.copyOf(sumasAlumnos, capacidad);
+            suspensosAlumnos = Arrays.copyOf(suspensosAlumnos, capacidad);
+            filasPendientes = Arrays.copyOf(filasPendientes, (capacidad + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Recalcula las filas de los alumnos marcados como pendientes.
+     */
+    private void recalcularPendientes() {
+        for (int w = 0; w < filasPendientes.length; w++) {
+            long bits = filasPendientes[w];
+            while (bits != 0) {
+                int alumno = (w << 6) + Long.numberOfTrailingZeros(bits);
+                sumasAlumnos[alumno] = calcularSumaAlumno(alumno);
+                suspensosAlumnos[alumno] = calcularSuspensosAlumno(alumno);
+                bits &= bits - 1;
+            }
+            filasPendientes[w] = 0;
+        }
+        totalPendientes = 0;
+    }
+
+    /**
+     * Marca la fila de un alumno para recalcularla en la próxima consulta.
+     * @param alumno Índice del alumno.
+     */
+    private void marcarPendiente(int alumno) {
+        if (sumasAlumnos != null) {
+            long bit = 1L << alumno;
+            if ((filasPendientes[alumno >>> 6] & bit) == 0) {
+                filasPendientes[alumno >>> 6] |= bit;
+                totalPendientes++;
+            }
+        }
+    }
+
+    /**
+     * Descarta la vista materializada y deja de observar las asignaturas.
+     */
+    private void descartarVista() {
+        if (observadas != null) {
+            for (Asignatura asignatura : observadas) {
+                asignatura.quitarOyente(oyente);
+            }
+            observadas = null;
+        }
+        sumasAlumnos = null;
+    }
+
+    /**
+     * Suma las notas de un alumno leyéndolas de las asignaturas.
+     * @param indice Índice del alumno.
+     * @return Suma de sus notas.
+     */
+    private double calcularSumaAlumno(int indice) {
+        if (matriz != null) {
+            // Las notas del alumno son consecutivas en la matriz
+            return matriz.sumaAlumno(indice);
+        }
+        double suma = 0;
+        // Suma las notas del alumno en todas las asignaturas
+        for (int i = 0; i < totalAsignaturas; i++) {
+            suma += asignaturas[i].notaAlumno(indice);
+        }
+        return suma;
+    }
+
     /**
      * Calcula la media de notas de un alumno en todas las asignaturas.
      *
@@ -207,25 +1206,30 @@ public class Grupo {
      * @return Media del alumno si el índice es válido, -1 en caso contrario.
      */
     public double dameAlumnoMedia(int indice) {
+        long medida = Metricas.inicio();
         double media = -1;
 
-        // Validación del índice
-        if (indice > totalAlumnos || indice < 0) {
+        // Validación del índice (los alumnos dados de baja no son válidos)
+        if (!alumnoActivo(indice)) {
             System.out.println("[!] Indice no Válido");
         } else {
-            media = 0;
-
-            // Suma las notas del alumno en todas las asignaturas
-            for (int i = 0; i < totalAsignaturas; i++) {
-                media += asignaturas[i].notaAlumno(indice);
-            }
-
             // Calcula la media dividiendo entre el total de asignaturas
-            media = media / totalAsignaturas;
+            media = mediaAlumno(indice);
         }
+        Metricas.fin(Metricas.Operacion.ALUMNO_MEDIA, medida);
         return media;
     }
 
+    /**
+     * Calcula la media de un alumno (índice válido) sin mensajes ni métricas, para los
+     * recorridos que piden la media de todos los alumnos.
+     * @param indice Índice del alumno.
+     * @return Media de sus notas.
+     */
+    double mediaAlumno(int indice) {
+        return sumaNotasAlumno(indice) / totalAsignaturas;
+    }
+
     /**
      * Cuenta cuántas asignaturas tiene suspendidas un alumno.
      *
@@ -233,19 +1237,34 @@ public class Grupo {
      * @return Número de suspensos si el índice es válido, -1 en caso contrario.
      */
     public int dameAlumnoSuspensos(int indice) {
+        long medida = Metricas.inicio();
         int suspensos = -1;
 
-        // Validación del índice
-        if (indice > totalAlumnos || indice < 0) {
+        // Validación del índice (los alumnos dados de baja no son válidos)
+        if (!alumnoActivo(indice)) {
             System.out.println("[!] Indice no Válido");
         } else {
-            suspensos = 0;
+            suspensos = suspensosAlumno(indice);
+        }
+        Metricas.fin(Metricas.Operacion.ALUMNO_SUSPENSOS, medida);
+        return suspensos;
+    }
 
-            // Cuenta las asignaturas con notas menores a 5
-            for (int i = 0; i < totalAsignaturas; i++) {
-                if (asignaturas[i].notaAlumno(indice) < 5) {
-                    suspensos++;
-                }
+    /**
+     * Cuenta las asignaturas suspensas de un alumno leyendo sus notas.
+     * @param indice Índice del alumno.
+     * @return Número de asignaturas con nota menor que 5.
+     */
+    private int calcularSuspensosAlumno(int indice) {
+        if (matriz != null) {
+            // Las notas del alumno son consecutivas en la matriz
+            return matriz.suspensosAlumno(indice);
+        }
+        int suspensos = 0;
+        // Cuenta las asignaturas con notas menores a 5
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i].notaAlumno(indice) < 5) {
+                suspensos++;
             }
         }
         return suspensos;
@@ -257,78 +1276,395 @@ public class Grupo {
      * @return Nombre del alumno con la mejor media.
      */
     public String dameMejorAlumnoMedia() {
+        long medida = Metricas.inicio();
         double mejorMedia = Double.MIN_VALUE;
         String mejorAlumno = " ";
         double media;
+        // En modo paralelo las medias se calculan antes y después se recorren en orden
+        double[] medias = usarParalelismo() ? calcularMediasAlumnos() : null;
 
         // Recorre todos los alumnos calculando su media
         for (int i = 0; i < totalAlumnos; i++) {
-            media = dameAlumnoMedia(i);
+            if (alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            media = medias != null ? medias[i] : mediaAlumno(i);
             if (media > mejorMedia) {
                 mejorMedia = media;
                 mejorAlumno = alumnos[i];
             }
         }
+        Metricas.fin(Metricas.Operacion.MEJOR_ALUMNO_MEDIA, medida);
         return mejorAlumno;
     }
 
+    /**
+     * Crea una consulta perezosa sobre los alumnos del grupo, que se resuelve en un solo
+     * recorrido. Si el paralelismo está activado, la consulta usa el mismo pool y umbral.
+     * @return Consulta nueva sin filtros, cuyo valor es la media de cada alumno.
+     */
+    public ConsultaGrupo consulta() {
+        ConsultaGrupo consulta = new ConsultaGrupo(this);
+        return pool != null ? consulta.enParalelo(pool, umbralParalelo) : consulta;
+    }
+
+    /**
+     * Devuelve los k alumnos con mejor media, del mejor al peor (cuadro de honor).
+     * A igualdad de media va primero el alumno de menor índice.
+     * @param k Número de alumnos.
+     * @return Índices de los alumnos (menos de k si el grupo es más pequeño).
+     */
+    public int[] mejoresAlumnos(int k) {
+        return alumnosExtremos(k, true);
+    }
+
+    /**
+     * Devuelve los k alumnos con peor media, del peor al menos malo (alumnos en riesgo).
+     * A igualdad de media va primero el alumno de menor índice.
+     * @param k Número de alumnos.
+     * @return Índices de los alumnos (menos de k si el grupo es más pequeño).
+     */
+    public int[] peoresAlumnos(int k) {
+        return alumnosExtremos(k, false);
+    }
+
+    /**
+     * Selecciona los k alumnos extremos con un montículo acotado en O(n log k), en un solo
+     * recorrido de una consulta (en paralelo si está activado).
+     * @param k Número de alumnos.
+     * @param mejores true para los de mayor media, false para los de menor.
+     * @return Índices de los alumnos ordenados.
+     */
+    private int[] alumnosExtremos(int k, boolean mejores) {
+        long medida = Metricas.inicio();
+        int[] extremos = mejores ? consulta().mejores(k) : consulta().peores(k);
+        Metricas.fin(Metricas.Operacion.ALUMNOS_EXTREMOS, medida);
+        return extremos;
+    }
+
     /**
      * Muestra en consola la media de notas de todos los alumnos.
      */
     public void muestraMediaAlumnos() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("----------Media de los alumnos------------\n");
-        // Encabezado con nombres de los alumnos
-        for (int i = 0; i < totalAlumnos; i++) {
-            sb.append(String.format("%-15s", alumnos[i]));
-        }
-        sb.append("\n");
-
-        // Muestra las medias calculadas para cada alumno
-        for (int i = 0; i < totalAlumnos; i++) {
-            sb.append(String.format("%-15.2f", dameAlumnoMedia(i)));
+        long medida = Metricas.inicio();
+        // En modo paralelo las medias se calculan antes de escribir el informe
+        double[] medias = usarParalelismo() ? calcularMediasAlumnos() : null;
+        InformeGrupo.SalidaPorBloques salida = new InformeGrupo.SalidaPorBloques(System.out);
+        try {
+            new InformeGrupo(salida).mediasAlumnos(this, medias);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // No ocurre: la salida no lanza excepciones.
         }
-        System.out.println(sb);
+        salida.vaciar();
+        System.out.println();
+        Metricas.fin(Metricas.Operacion.MUESTRA_MEDIAS, medida);
     }
 
     /**
      * Identifica y muestra los alumnos repetidores (más de 2 suspensos).
      */
     public void muestraRepetidores() {
+        long medida = Metricas.inicio();
         System.out.println("--------Repetidores--------");
-        for (int i = 0; i < totalAlumnos; i++) {
-            if (dameAlumnoSuspensos(i) > 2) {
-                System.out.println("Repetidor: " + alumnos[i]);
+        // Los repetidores salen de las máscaras de suspensos, 64 alumnos por operación
+        BitSet repetidores = alumnosConSuspensosMasDe(2);
+        for (int alumno = repetidores.nextSetBit(0); alumno >= 0; alumno = repetidores.nextSetBit(alumno + 1)) {
+            System.out.println("Repetidor: " + alumnos[alumno]);
+        }
+        Metricas.fin(Metricas.Operacion.MUESTRA_REPETIDORES, medida);
+    }
+
+    /**
+     * Calcula los alumnos que han suspendido más de n asignaturas sin leer ninguna nota:
+     * suma las máscaras de suspensos de las asignaturas con contadores por bits (cada bit
+     * del contador es una palabra, así que se cuentan 64 alumnos a la vez) y compara el
+     * resultado con n de la misma forma. Las asignaturas sin notas no cuentan.
+     * @param n Número de suspensos que hay que superar.
+     * @return Conjunto con los índices de esos alumnos.
+     */
+    public BitSet alumnosConSuspensosMasDe(int n) {
+        long medida = Metricas.inicio();
+        int palabras = (totalAlumnos + 63) >>> 6;
+        long[][] mascaras = mascarasSuspensos();
+        int bits = 32 - Integer.numberOfLeadingZeros(totalAsignaturas); // Bits para contar hasta totalAsignaturas.
+        long[] contador = new long[bits]; // contador[b]: bit b del número de suspensos de cada alumno.
+        long[] resultado = new long[palabras];
+
+        for (int w = 0; w < palabras; w++) {
+            Arrays.fill(contador, 0);
+            for (long[] mascara : mascaras) {
+                // Suma con acarreo de la palabra de suspensos de la asignatura
+                long acarreo = mascara != null ? mascara[w] : 0;
+                for (int b = 0; b < bits && acarreo != 0; b++) {
+                    long siguiente = contador[b] & acarreo;
+                    contador[b] ^= acarreo;
+                    acarreo = siguiente;
+                }
             }
+            resultado[w] = mayorQue(contador, n) & palabraActiva(w);
+        }
+        BitSet conjunto = BitSet.valueOf(resultado);
+        Metricas.fin(Metricas.Operacion.SUSPENSOS_GRUPO, medida);
+        return conjunto;
+    }
+
+    /**
+     * Compara con una constante 64 contadores guardados por bits.
+     * @param contador Bits de los contadores, del menos al más significativo.
+     * @param n Constante.
+     * @return Palabra con un 1 en las posiciones cuyo contador es mayor que n.
+     */
+    private static long mayorQue(long[] contador, int n) {
+        if (n < 0) {
+            return -1L;
+        }
+        if (n >>> contador.length != 0) {
+            return 0; // n no cabe en los contadores: ninguno puede superarlo.
+        }
+        long mayor = 0;
+        long igual = -1L;
+        for (int b = contador.length - 1; b >= 0; b--) {
+            if ((n >>> b & 1) == 1) {
+                igual &= contador[b];
+            } else {
+                mayor |= igual & contador[b];
+                igual &= ~contador[b];
+            }
+        }
+        return mayor;
+    }
+
+    /**
+     * Calcula los alumnos que han suspendido todas las asignaturas indicadas.
+     * @param indicesAsignaturas Índices de las asignaturas.
+     * @return Conjunto con los índices de esos alumnos (todos si no se indica ninguna).
+     */
+    public BitSet suspensosEnTodas(int... indicesAsignaturas) {
+        long medida = Metricas.inicio();
+        long[][] mascaras = mascarasSuspensos();
+        long[] resultado = new long[(totalAlumnos + 63) >>> 6];
+        for (int w = 0; w < resultado.length; w++) {
+            long palabra = palabraActiva(w);
+            for (int j : indicesAsignaturas) {
+                palabra &= mascaras[j] != null ? mascaras[j][w] : 0;
+            }
+            resultado[w] = palabra;
+        }
+        BitSet conjunto = BitSet.valueOf(resultado);
+        Metricas.fin(Metricas.Operacion.SUSPENSOS_GRUPO, medida);
+        return conjunto;
+    }
+
+    /**
+     * Calcula los alumnos que han suspendido alguna de las asignaturas indicadas.
+     * @param indicesAsignaturas Índices de las asignaturas.
+     * @return Conjunto con los índices de esos alumnos.
+     */
+    public BitSet suspensosEnAlguna(int... indicesAsignaturas) {
+        long medida = Metricas.inicio();
+        long[][] mascaras = mascarasSuspensos();
+        long[] resultado = new long[(totalAlumnos + 63) >>> 6];
+        for (int w = 0; w < resultado.length; w++) {
+            long palabra = 0;
+            for (int j : indicesAsignaturas) {
+                palabra |= mascaras[j] != null ? mascaras[j][w] : 0;
+            }
+            resultado[w] = palabra & palabraActiva(w);
+        }
+        BitSet conjunto = BitSet.valueOf(resultado);
+        Metricas.fin(Metricas.Operacion.SUSPENSOS_GRUPO, medida);
+        return conjunto;
+    }
+
+    /**
+     * Devuelve los bits de una palabra que corresponden a alumnos que siguen en el grupo.
+     * @param palabra Índice de la palabra.
+     * @return Máscara de alumnos existentes y no dados de baja.
+     */
+    private long palabraActiva(int palabra) {
+        long activos = Asignatura.palabraValida(palabra, totalAlumnos);
+        return bajas != null && palabra < bajas.length ? activos & ~bajas[palabra] : activos;
+    }
+
+    /**
+     * Obtiene las máscaras de suspensos de todas las asignaturas.
+     * @return Palabras de la máscara de cada asignatura (null si no tiene notas).
+     */
+    private long[][] mascarasSuspensos() {
+        long[][] mascaras = new long[totalAsignaturas][];
+        for (int j = 0; j < totalAsignaturas; j++) {
+            mascaras[j] = asignaturas[j] != null ? asignaturas[j].palabrasSuspensos() : null;
         }
+        return mascaras;
     }
 
     /**
      * Analiza las notas de cada asignatura y muestra estadísticas.
      */
     public void analizaAsignaturas() {
+        long medida = Metricas.inicio();
         System.out.println("--------Analisis por asignaturas-------");
         for (int i = 0; i < totalAsignaturas; i++) {
             System.out.println(" ----- " + asignaturas[i].getNombreAsignatura() + " ----- ");
             asignaturas[i].analizaGrupo();
             System.out.println();
         }
+        Metricas.fin(Metricas.Operacion.ANALIZA_ASIGNATURAS, medida);
+    }
+
+    /**
+     * Analiza las notas de cada asignatura sin escribir en consola: el resultado de la
+     * asignatura i queda en resultados[i]. Reutilizando los mismos resultados no reserva memoria.
+     * @param resultados Un resultado por asignatura (puede ser más largo que el total de asignaturas).
+     * @return Número de asignaturas analizadas, o -1 si faltan resultados.
+     */
+    public int analizaAsignaturas(ResultadoAnalisis[] resultados) {
+        if (resultados == null || resultados.length < totalAsignaturas) {
+            System.out.println("[!] Hace falta un resultado por asignatura");
+            return -1;
+        }
+        long medida = Metricas.inicio();
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null) {
+                asignaturas[i].analizaGrupo(resultados[i]);
+            } else {
+                resultados[i].vaciar();
+            }
+        }
+        Metricas.fin(Metricas.Operacion.ANALIZA_ASIGNATURAS, medida);
+        return totalAsignaturas;
+    }
+
+    /**
+     * Calcula estadísticas combinables de todas las notas del grupo, en todas las asignaturas.
+     * @return Estadísticas nuevas (las asignaturas sin notas no aportan nada).
+     */
+    public EstadisticasNotas estadisticas() {
+        long medida = Metricas.inicio();
+        EstadisticasNotas estadisticas = new EstadisticasNotas();
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null) {
+                estadisticas.combinar(asignaturas[i].estadisticas());
+            }
+        }
+        Metricas.fin(Metricas.Operacion.ESTADISTICAS_GRUPO, medida);
+        return estadisticas;
+    }
+
+    /**
+     * Calcula estadísticas combinables de las medias de los alumnos, que son los
+     * valores que analiza analizaCurso.
+     * @return Estadísticas nuevas de las medias.
+     */
+    public EstadisticasNotas estadisticasMedias() {
+        long medida = Metricas.inicio();
+        EstadisticasNotas estadisticas = new EstadisticasNotas();
+        for (double media : calcularMediasActivos()) {
+            estadisticas.añadir(media);
+        }
+        Metricas.fin(Metricas.Operacion.ESTADISTICAS_GRUPO, medida);
+        return estadisticas;
+    }
+
+    /**
+     * Calcula estadísticas combinables de las notas de una asignatura del grupo.
+     * @param nombreAsignatura Nombre de la asignatura.
+     * @return Estadísticas nuevas (vacías si el grupo no tiene esa asignatura).
+     */
+    public EstadisticasNotas estadisticasAsignatura(String nombreAsignatura) {
+        long medida = Metricas.inicio();
+        EstadisticasNotas estadisticas = new EstadisticasNotas();
+        for (int i = 0; i < totalAsignaturas; i++) {
+            if (asignaturas[i] != null && nombreAsignatura.equals(asignaturas[i].getNombreAsignatura())) {
+                estadisticas.combinar(asignaturas[i].estadisticas());
+            }
+        }
+        Metricas.fin(Metricas.Operacion.ESTADISTICAS_GRUPO, medida);
+        return estadisticas;
     }
 
     /**
      * Realiza un análisis global del curso considerando todas las medias de alumnos.
      */
     public void analizaCurso() {
-        double[] medias = new double[totalAlumnos];
+        long medida = Metricas.inicio();
         System.out.println("--------Analisis Grupo "+nombreGrupo+"-------");
-        // Calcula las medias de todos los alumnos
-        for (int i = 0; i < totalAlumnos; i++) {
-            medias[i] = dameAlumnoMedia(i);
+        System.out.println(analizarMedias(new ResultadoAnalisis()).getMensaje());
+        Metricas.fin(Metricas.Operacion.ANALIZA_CURSO, medida);
+    }
+
+    /**
+     * Realiza el análisis global del curso sin escribir en consola: deja el veredicto y las
+     * categorías de las medias de los alumnos en un resultado que da quien llama.
+     * Las medias se clasifican según se leen de la vista por alumno, sin copiarlas a un array,
+     * así que en modo secuencial, reutilizando el mismo resultado, no reserva memoria; en modo
+     * paralelo solo reserva un resultado parcial por tramo de alumnos.
+     * @param resultado Resultado que se rellena.
+     * @return Veredicto del análisis.
+     */
+    public Veredicto analizaCurso(ResultadoAnalisis resultado) {
+        long medida = Metricas.inicio();
+        Veredicto veredicto = analizarMedias(resultado);
+        Metricas.fin(Metricas.Operacion.ANALIZA_CURSO, medida);
+        return veredicto;
+    }
+
+    /**
+     * Clasifica las medias de los alumnos que siguen en el grupo con los mismos criterios
+     * que Asignatura.analizaGrupo.
+     * @param resultado Resultado que se rellena.
+     * @return Veredicto del análisis.
+     */
+    private Veredicto analizarMedias(ResultadoAnalisis resultado) {
+        actualizarVista(); // Después, sumaNotasAlumno solo lee la vista.
+        if (!usarParalelismo()) {
+            return clasificarMedias(0, totalAlumnos, resultado);
+        }
+        // Cada tramo cuenta en su propio resultado y los recuentos se suman al final
+        int tramos = (totalAlumnos + umbralParalelo - 1) / umbralParalelo;
+        ResultadoAnalisis[] parciales = new ResultadoAnalisis[tramos];
+        pool.invoke(new RecorridoParalelo(t -> {
+            ResultadoAnalisis parcial = new ResultadoAnalisis();
+            clasificarMedias(t * umbralParalelo, Math.min(totalAlumnos, (t + 1) * umbralParalelo), parcial);
+            parciales[t] = parcial;
+        }, 0, tramos, 1));
+        int fenomenal = 0;
+        int repaso = 0;
+        int mal = 0;
+        for (ResultadoAnalisis parcial : parciales) {
+            fenomenal += parcial.getFenomenal();
+            repaso += parcial.getRepaso();
+            mal += parcial.getMal();
         }
+        return resultado.fijar(fenomenal, repaso, mal);
+    }
 
-        // Crea una "asignatura ficticia" con estas medias y realiza el análisis
-        Asignatura mediaAsignaturas = new Asignatura("Analisis " + nombreGrupo, medias);
-        mediaAsignaturas.analizaGrupo();
+    /**
+     * Clasifica las medias de los alumnos de un tramo que siguen en el grupo.
+     * La vista por alumno debe estar al día.
+     * @param desde Primer alumno (incluido).
+     * @param hasta Último alumno (excluido).
+     * @param resultado Resultado que se rellena con los recuentos del tramo.
+     * @return Veredicto del tramo.
+     */
+    private Veredicto clasificarMedias(int desde, int hasta, ResultadoAnalisis resultado) {
+        int fenomenal = 0;
+        int repaso = 0;
+        int mal = 0;
+        for (int i = desde; i < hasta; i++) {
+            if (alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            double media = sumaNotasAlumno(i) / totalAsignaturas;
+            if (media > 7) {
+                fenomenal++;
+            } else if (media >= 5) {
+                repaso++;
+            } else {
+                mal++;
+            }
+        }
+        return resultado.fijar(fenomenal, repaso, mal);
     }
 
     /**
@@ -338,24 +1674,16 @@ public class Grupo {
      */
     @Override
     public String toString() {
+        long medida = Metricas.inicio();
         StringBuilder sb = new StringBuilder();
-
-        // Encabezado de la tabla
-        sb.append(String.format("%-15s", "Alumno"));
-        for (int j = 0; j < totalAsignaturas; j++) {
-            sb.append(String.format("%-15s", asignaturas[j].getNombreAsignatura()));
-        }
-        sb.append("\n");
-
-        // Cuerpo de la tabla con nombres y notas
-        for (int i = 0; i < totalAlumnos; i++) {
-            sb.append(String.format("%-15s", alumnos[i]));
-            for (int y = 0; y < totalAsignaturas; y++) {
-                sb.append(String.format("%-15.2f", asignaturas[y].notaAlumno(i)));
-            }
-            sb.append("\n");
+        try {
+            new InformeGrupo(sb).tabla(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // No ocurre: StringBuilder no lanza excepciones.
         }
-        return sb.toString();
+        String informe = sb.toString();
+        Metricas.fin(Metricas.Operacion.INFORME, medida);
+        return informe;
     }
 
 }
\ No newline at end of file
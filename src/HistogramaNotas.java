@@ -0,0 +1,111 @@
+/**
+ * Histograma de las notas de una asignatura por décimas (101 intervalos, de 0,0 a 10,0),
+ * que se mantiene al cambiar las notas.
+ * Además de las cuentas por décima guarda contadores exactos de notas mayores que 7 y de aprobados
+ * (>= 5), para que la clasificación no dependa del redondeo, y cuenta las notas que no son
+ * décimas exactas: si no hay ninguna, las notas ordenadas salen del histograma en O(n).
+ */
+class HistogramaNotas {
+
+    private final int[] cuentas = new int[EstadisticasNotas.INTERVALOS]; // Notas por décima redondeada.
+    private int fenomenales; // Notas > 7.
+    private int aprobados;   // Notas >= 5.
+    private int sinDecima;   // Notas que no son exactamente una décima (p. ej. 6,25).
+    private int total;       // Número de notas.
+
+    /**
+     * Cuenta todas las notas de un almacén.
+     * @param notas Almacén de notas.
+     * @return Este mismo histograma.
+     */
+    HistogramaNotas añadirTodas(AlmacenNotas notas) {
+        for (int i = 0; i < notas.longitud(); i++) {
+            añadir(notas.nota(i));
+        }
+        return this;
+    }
+
+    /**
+     * Cuenta una nota.
+     * @param nota Nota entre 0 y 10.
+     */
+    void añadir(double nota) {
+        contar(nota, 1);
+    }
+
+    /**
+     * Deja de contar una nota que se había añadido antes.
+     * @param nota Nota entre 0 y 10.
+     */
+    void quitar(double nota) {
+        contar(nota, -1);
+    }
+
+    /**
+     * @return Número de notas mayores que 7.
+     */
+    int fenomenales() {
+        return fenomenales;
+    }
+
+    /**
+     * @return Número de notas mayores o iguales que 5.
+     */
+    int aprobados() {
+        return aprobados;
+    }
+
+    /**
+     * @return Número de notas.
+     */
+    int total() {
+        return total;
+    }
+
+    /**
+     * Suma las cuentas de cada décima a un histograma de EstadisticasNotas.
+     * @param destino Array de EstadisticasNotas.INTERVALOS contadores.
+     */
+    void sumarCuentasEn(long[] destino) {
+        for (int k = 0; k < cuentas.length; k++) {
+            destino[k] += cuentas[k];
+        }
+    }
+
+    /**
+     * Indica si todas las notas son décimas exactas, es decir, si el histograma las representa sin pérdida.
+     * @return true si las notas pueden reconstruirse a partir del histograma.
+     */
+    boolean esExacto() {
+        return sinDecima == 0;
+    }
+
+    /**
+     * Escribe las notas ordenadas de menor a mayor (ordenación por cuentas).
+     * Solo es correcto si esExacto() es true.
+     * @param destino Array de tamaño total() donde se escriben las notas.
+     */
+    void ordenarEn(double[] destino) {
+        int posicion = 0;
+        for (int k = 0; k < cuentas.length; k++) {
+            double nota = k / 10.0;
+            for (int c = cuentas[k]; c > 0; c--) {
+                destino[posicion++] = nota;
+            }
+        }
+    }
+
+    /**
+     * Suma una cantidad a los contadores que corresponden a una nota.
+     * @param nota Nota.
+     * @param cantidad 1 al añadir, -1 al quitar.
+     */
+    private void contar(double nota, int cantidad) {
+        int decimas = EstadisticasNotas.intervalo(nota);
+        cuentas[decimas] += cantidad;
+        fenomenales += nota > 7 ? cantidad : 0;
+        aprobados += nota >= 5 ? cantidad : 0;
+        sinDecima += decimas / 10.0 != nota ? cantidad : 0;
+        total += cantidad;
+    }
+}
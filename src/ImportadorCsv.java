@@ -0,0 +1,335 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Importación masiva de un grupo desde un fichero CSV/TSV.
+ * La primera línea es la cabecera: una celda para la columna de alumnos y después
+ * el nombre de cada asignatura. Cada línea siguiente tiene el nombre del alumno y sus notas.
+ * El separador (coma, punto y coma o tabulador) se detecta en la cabecera; las notas
+ * admiten punto decimal, y también coma si el separador no es la coma o la nota va entre comillas.
+ * Las celdas pueden ir entre comillas dobles como en RFC 4180, para incluir el separador, y dentro
+ * de ellas "" es una comilla. No se admiten saltos de línea dentro de una celda: cada línea es
+ * una fila, y una fila con comillas sin cerrar se rechaza.
+ * El fichero se lee por bloques con NIO y las notas se analizan directamente desde
+ * los bytes, sin crear un String por celda. Las filas incorrectas se descartan
+ * y se anotan en el resultado sin detener la importación.
+ */
+public class ImportadorCsv {
+
+    private static final int TAMANO_BUFFER = 1 << 20; // Tamaño inicial del bloque de lectura (1 MB).
+    private static final int MAX_ERRORES = 100;       // Número máximo de errores que se guardan.
+    private static final int MAX_DIGITOS = 18;        // Dígitos que caben en un long sin desbordar.
+    private static final double[] POTENCIAS_10 = new double[MAX_DIGITOS + 1];
+
+    static {
+        POTENCIAS_10[0] = 1;
+        for (int i = 1; i < POTENCIAS_10.length; i++) {
+            POTENCIAS_10[i] = POTENCIAS_10[i - 1] * 10;
+        }
+    }
+
+    private byte separador;              // Separador de celdas detectado en la cabecera.
+    private String[] nombresAsignaturas; // Nombres de las asignaturas (null hasta leer la cabecera).
+    private double[][] columnas;         // Notas leídas de cada asignatura.
+    private String[] alumnos;            // Nombres de los alumnos leídos.
+    private int totalAlumnos;            // Número de filas aceptadas.
+    private int filasRechazadas;         // Número de filas descartadas.
+    private final List<String> errores = new ArrayList<>(); // Primeros motivos de rechazo.
+    private double[] fila;               // Notas de la fila actual (se reutiliza).
+    private int numeroLinea;             // Número de la línea que se está procesando.
+    private int posicion;                // Posición actual dentro de la línea.
+
+    private ImportadorCsv() {
+    }
+
+    /**
+     * Importa un grupo desde un fichero CSV/TSV.
+     * @param nombreGrupo Nombre del grupo que se crea.
+     * @param fichero Fichero a importar.
+     * @return Resultado con el grupo, las filas rechazadas y el rendimiento.
+     * @throws IOException Si el fichero no se puede leer o no tiene una cabecera válida.
+     */
+    public static ResultadoImportacion importar(String nombreGrupo, Path fichero) throws IOException {
+        return new ImportadorCsv().leer(nombreGrupo, fichero);
+    }
+
+    private ResultadoImportacion leer(String nombreGrupo, Path fichero) throws IOException {
+        long inicioTiempo = System.nanoTime();
+        long bytesLeidos = 0;
+
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER);
+            boolean finFichero = false;
+
+            while (!finFichero) {
+                int leidos = canal.read(buffer);
+                if (leidos < 0) {
+                    finFichero = true;
+                } else {
+                    bytesLeidos += leidos;
+                }
+                byte[] datos = buffer.array();
+                int limite = buffer.position();
+                int inicioLinea = 0;
+
+                // Procesa todas las líneas completas del bloque
+                for (int i = 0; i < limite; i++) {
+                    if (datos[i] == '\n') {
+                        procesarLinea(datos, inicioLinea, i);
+                        inicioLinea = i + 1;
+                    }
+                }
+
+                if (finFichero) {
+                    if (inicioLinea < limite) {
+                        procesarLinea(datos, inicioLinea, limite); // Última línea sin salto final.
+                    }
+                } else if (inicioLinea == 0 && limite == datos.length) {
+                    // La línea no cabe en el bloque: se duplica su tamaño
+                    ByteBuffer mayor = ByteBuffer.allocate(datos.length * 2);
+                    mayor.put(datos, 0, limite);
+                    buffer = mayor;
+                } else {
+                    // Lleva la línea incompleta al principio del bloque
+                    System.arraycopy(datos, inicioLinea, datos, 0, limite - inicioLinea);
+                    buffer.position(limite - inicioLinea);
+                }
+            }
+        }
+
+        if (nombresAsignaturas == null) {
+            throw new IOException("El fichero " + fichero + " no tiene cabecera");
+        }
+        Asignatura[] asignaturas = new Asignatura[nombresAsignaturas.length];
+        for (int j = 0; j < asignaturas.length; j++) {
+            asignaturas[j] = new Asignatura(nombresAsignaturas[j], Arrays.copyOf(columnas[j], totalAlumnos));
+        }
+        Grupo grupo = new Grupo(nombreGrupo, Arrays.copyOf(alumnos, totalAlumnos), asignaturas);
+        return new ResultadoImportacion(grupo, totalAlumnos, filasRechazadas, errores,
+                bytesLeidos, System.nanoTime() - inicioTiempo);
+    }
+
+    /**
+     * Procesa una línea del fichero (sin el salto de línea).
+     * @param datos Bytes del bloque leído.
+     * @param desde Primera posición de la línea.
+     * @param hasta Posición siguiente al último byte de la línea.
+     * @throws IOException Si es la cabecera y no es válida.
+     */
+    private void procesarLinea(byte[] datos, int desde, int hasta) throws IOException {
+        numeroLinea++;
+        if (hasta > desde && datos[hasta - 1] == '\r') {
+            hasta--;
+        }
+        if (numeroLinea == 1 && hasta - desde >= 3 && datos[desde] == (byte) 0xEF
+                && datos[desde + 1] == (byte) 0xBB && datos[desde + 2] == (byte) 0xBF) {
+            desde += 3; // Salta la marca de orden de bytes UTF-8.
+        }
+        if (hasta == desde) {
+            return; // Línea vacía.
+        }
+        if (nombresAsignaturas == null) {
+            leerCabecera(datos, desde, hasta);
+        } else {
+            leerFila(datos, desde, hasta);
+        }
+    }
+
+    /**
+     * Lee la cabecera: detecta el separador (fuera de comillas) y obtiene los nombres de las asignaturas.
+     * @throws IOException Si tiene comillas sin cerrar.
+     */
+    private void leerCabecera(byte[] datos, int desde, int hasta) throws IOException {
+        separador = ',';
+        boolean entreComillas = false;
+        for (int i = desde; i < hasta; i++) {
+            if (datos[i] == '"') {
+                entreComillas = !entreComillas;
+            } else if (!entreComillas && (datos[i] == '\t' || datos[i] == ';' || datos[i] == ',')) {
+                separador = datos[i];
+                break;
+            }
+        }
+
+        List<String> celdas = new ArrayList<>();
+        int inicioCelda = desde;
+        while (true) {
+            int finCelda = finCelda(datos, inicioCelda, hasta);
+            if (finCelda < 0) {
+                throw new IOException("Comillas sin cerrar en la cabecera");
+            }
+            celdas.add(texto(datos, inicioCelda, finCelda));
+            if (finCelda == hasta) {
+                break;
+            }
+            inicioCelda = finCelda + 1;
+        }
+        // La primera celda corresponde a la columna de los alumnos
+        nombresAsignaturas = celdas.subList(1, celdas.size()).toArray(new String[0]);
+        columnas = new double[nombresAsignaturas.length][1024];
+        alumnos = new String[1024];
+        fila = new double[nombresAsignaturas.length];
+    }
+
+    /**
+     * Lee la fila de un alumno y la añade si es correcta; si no, la anota como rechazada.
+     */
+    private void leerFila(byte[] datos, int desde, int hasta) {
+        int finNombre = finCelda(datos, desde, hasta);
+        if (finNombre < 0) {
+            rechazar("comillas sin cerrar");
+            return;
+        }
+        String nombre = texto(datos, desde, finNombre);
+        if (nombre.isEmpty()) {
+            rechazar("nombre de alumno vacío");
+            return;
+        }
+
+        posicion = finNombre;
+        for (int j = 0; j < fila.length; j++) {
+            if (posicion >= hasta) {
+                rechazar("faltan notas (se esperaban " + fila.length + ")");
+                return;
+            }
+            posicion++; // Salta el separador.
+            double nota = leerNota(datos, hasta);
+            if (nota < 0) {
+                rechazar("nota incorrecta en la columna " + (j + 2));
+                return;
+            }
+            fila[j] = nota;
+        }
+        if (posicion < hasta) {
+            rechazar("sobran columnas (se esperaban " + (fila.length + 1) + ")");
+            return;
+        }
+
+        // Añade la fila, ampliando los arrays si están llenos
+        if (totalAlumnos == alumnos.length) {
+            alumnos = Arrays.copyOf(alumnos, alumnos.length * 2);
+            for (int j = 0; j < columnas.length; j++) {
+                columnas[j] = Arrays.copyOf(columnas[j], alumnos.length);
+            }
+        }
+        alumnos[totalAlumnos] = nombre;
+        for (int j = 0; j < fila.length; j++) {
+            columnas[j][totalAlumnos] = fila[j];
+        }
+        totalAlumnos++;
+    }
+
+    /**
+     * Analiza una nota a partir de la posición actual, que queda en el siguiente separador.
+     * Acepta espacios alrededor, comillas, dígitos y una parte decimal con punto (o coma si no es
+     * el separador o la nota va entre comillas).
+     * @param datos Bytes de la línea.
+     * @param hasta Fin de la línea.
+     * @return Nota entre 0 y 10, o -1 si la celda no es una nota válida.
+     */
+    private double leerNota(byte[] datos, int hasta) {
+        int i = posicion;
+        while (i < hasta && datos[i] == ' ') {
+            i++;
+        }
+        boolean comillas = i < hasta && datos[i] == '"';
+        if (comillas) {
+            i++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = 0;
+        boolean parteDecimal = false;
+
+        for (; i < hasta; i++) {
+            byte c = datos[i];
+            if (c >= '0' && c <= '9') {
+                if (digitos == MAX_DIGITOS) {
+                    return -1;
+                }
+                mantisa = mantisa * 10 + (c - '0');
+                digitos++;
+                if (parteDecimal) {
+                    decimales++;
+                }
+            } else if (!parteDecimal && (c == '.' || (c == ',' && (separador != ',' || comillas)))) {
+                parteDecimal = true;
+            } else {
+                break;
+            }
+        }
+        if (comillas) {
+            if (i == hasta || datos[i] != '"') {
+                posicion = i;
+                return -1;
+            }
+            i++;
+        }
+        while (i < hasta && datos[i] == ' ') {
+            i++;
+        }
+        posicion = i;
+        if (digitos == 0 || (i < hasta && datos[i] != separador)) {
+            return -1;
+        }
+        // La mantisa y la potencia de 10 son exactas, así que la división redondea correctamente
+        double nota = mantisa / POTENCIAS_10[decimales];
+        return nota <= 10 ? nota : -1;
+    }
+
+    /**
+     * Busca el final de una celda de texto: el siguiente separador fuera de comillas o el fin
+     * de la línea.
+     * @param datos Bytes de la línea.
+     * @param desde Primera posición de la celda.
+     * @param hasta Fin de la línea.
+     * @return Posición del separador (o hasta), o -1 si hay comillas sin cerrar.
+     */
+    private int finCelda(byte[] datos, int desde, int hasta) {
+        boolean entreComillas = false;
+        for (int i = desde; i < hasta; i++) {
+            if (datos[i] == '"') {
+                entreComillas = !entreComillas; // "" dentro de comillas cierra y vuelve a abrir.
+            } else if (datos[i] == separador && !entreComillas) {
+                return i;
+            }
+        }
+        return entreComillas ? -1 : hasta;
+    }
+
+    /**
+     * Convierte una celda a texto quitando espacios y comillas alrededor; dentro de las
+     * comillas, "" se convierte en una comilla.
+     */
+    private static String texto(byte[] datos, int desde, int hasta) {
+        while (desde < hasta && datos[desde] == ' ') {
+            desde++;
+        }
+        while (hasta > desde && datos[hasta - 1] == ' ') {
+            hasta--;
+        }
+        if (hasta - desde >= 2 && datos[desde] == '"' && datos[hasta - 1] == '"') {
+            String texto = new String(datos, desde + 1, hasta - desde - 2, StandardCharsets.UTF_8);
+            return texto.replace("\"\"", "\"");
+        }
+        return new String(datos, desde, hasta - desde, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Anota una fila rechazada y el motivo.
+     * @param motivo Motivo del rechazo.
+     */
+    private void rechazar(String motivo) {
+        filasRechazadas++;
+        if (errores.size() < MAX_ERRORES) {
+            errores.add("Línea " + numeroLinea + ": " + motivo);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Índice de los nombres de los alumnos de un grupo.
+ * Relaciona cada nombre con el índice del alumno, que es el que usan las notas de las asignaturas
+ * y no cambia al construir el índice. La búsqueda exacta usa una tabla hash (O(1)) y la búsqueda
+ * por prefijo un array de índices ordenado por nombre (O(log n + resultados)).
+ */
+class IndiceAlumnos {
+
+    private final String[] nombres;               // Nombres de los alumnos (no se copian).
+    private final HashMap<String, Integer> porNombre; // Nombre -> primer alumno con ese nombre.
+    private final int[] ordenados;                // Índices de los alumnos ordenados por nombre.
+
+    /**
+     * Construye el índice sobre los nombres de los alumnos.
+     * @param nombres Nombres de los alumnos (los null se ignoran).
+     * @param total Número de alumnos a indexar.
+     */
+    IndiceAlumnos(String[] nombres, int total) {
+        this.nombres = nombres;
+        this.porNombre = new HashMap<>(Math.max(16, total * 4 / 3 + 1));
+
+        int validos = 0;
+        for (int i = 0; i < total; i++) {
+            if (nombres[i] != null) {
+                porNombre.putIfAbsent(nombres[i], i);
+                validos++;
+            }
+        }
+
+        // Ordena los índices por nombre; a igualdad de nombre, por índice
+        Integer[] orden = new Integer[validos];
+        for (int i = 0, p = 0; i < total; i++) {
+            if (nombres[i] != null) {
+                orden[p++] = i;
+            }
+        }
+        Arrays.sort(orden, (a, b) -> nombres[a].compareTo(nombres[b]));
+        this.ordenados = new int[validos];
+        for (int i = 0; i < validos; i++) {
+            ordenados[i] = orden[i];
+        }
+    }
+
+    /**
+     * Busca un alumno por su nombre exacto.
+     * @param nombre Nombre del alumno.
+     * @return Índice del alumno (el menor si el nombre está repetido), o -1 si no existe.
+     */
+    int buscar(String nombre) {
+        Integer indice = porNombre.get(nombre);
+        return indice == null ? -1 : indice;
+    }
+
+    /**
+     * Busca los alumnos cuyo nombre empieza por un prefijo.
+     * @param prefijo Prefijo del nombre (distingue mayúsculas).
+     * @return Índices de los alumnos encontrados, ordenados por nombre.
+     */
+    int[] buscarPrefijo(String prefijo) {
+        int desde = primeroNoMenor(prefijo);
+        int hasta = desde;
+        while (hasta < ordenados.length && nombres[ordenados[hasta]].startsWith(prefijo)) {
+            hasta++;
+        }
+        return Arrays.copyOfRange(ordenados, desde, hasta);
+    }
+
+    /**
+     * @return Índices de todos los alumnos ordenados por nombre.
+     */
+    int[] ordenAlfabetico() {
+        return ordenados.clone();
+    }
+
+    /**
+     * Búsqueda binaria de la primera posición cuyo nombre no es menor que la clave.
+     * @param clave Nombre o prefijo buscado.
+     * @return Posición en el array de índices ordenados.
+     */
+    private int primeroNoMenor(String clave) {
+        int bajo = 0;
+        int alto = ordenados.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (nombres[ordenados[medio]].compareTo(clave) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Genera los informes en forma de tabla de un grupo escribiendo directamente en un Appendable,
+ * fila a fila, sin construir el informe completo en memoria.
+ * El relleno a ancho fijo y los números con dos decimales se escriben sin java.util.Formatter,
+ * con el mismo resultado que String.format("%-15s") y String.format("%-15.2f").
+ */
+public class InformeGrupo {
+
+    private static final int ANCHO_COLUMNA = 15;       // Ancho de las columnas de las tablas.
+    private static final int ANCHO_MEDIA = 10;         // Ancho de las columnas de medias por asignatura.
+    private static final int TAMANO_BLOQUE = 64 * 1024; // Caracteres que se acumulan antes de escribir.
+    private static final double LIMITE_CENTESIMAS = 1e15;  // Por encima, las centésimas no caben exactas en un double.
+    private static final double MARGEN_MITAD = 1e-9;       // Margen relativo alrededor de la mitad de una centésima.
+
+    private final Appendable salida;      // Destino del informe.
+    private final char separadorDecimal;  // Separador decimal de la configuración regional.
+
+    /**
+     * Constructor que escribe el informe en un Appendable.
+     * @param salida Destino del informe.
+     */
+    public InformeGrupo(Appendable salida) {
+        this.salida = salida;
+        this.separadorDecimal = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT))
+                .getDecimalSeparator();
+    }
+
+    /**
+     * Escribe la tabla de alumnos y notas de un grupo en un canal, en UTF-8 y por bloques,
+     * de forma que la memoria usada no depende del tamaño del grupo.
+     * @param grupo Grupo del informe.
+     * @param canal Canal de destino (por ejemplo un fichero).
+     * @throws IOException Si falla la escritura.
+     */
+    public static void escribirTabla(Grupo grupo, WritableByteChannel canal) throws IOException {
+        Writer escritor = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8), TAMANO_BLOQUE);
+        new InformeGrupo(escritor).tabla(grupo);
+        escritor.flush();
+    }
+
+    /**
+     * Escribe la tabla de alumnos y notas (el formato de Grupo.toString).
+     * @param grupo Grupo del informe.
+     * @throws IOException Si falla la escritura.
+     */
+    public void tabla(Grupo grupo) throws IOException {
+        // Encabezado de la tabla
+        texto("Alumno", ANCHO_COLUMNA);
+        for (int j = 0; j < grupo.getTotalAsignaturas(); j++) {
+            texto(grupo.getAsignatura(j).getNombreAsignatura(), ANCHO_COLUMNA);
+        }
+        salida.append('\n');
+
+        // Cuerpo de la tabla con nombres y notas (sin los alumnos dados de baja)
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (grupo.alumnoDadoDeBaja(i)) {
+                continue;
+            }
+            texto(grupo.getAlumno(i), ANCHO_COLUMNA);
+            for (int j = 0; j < grupo.getTotalAsignaturas(); j++) {
+                decimal(grupo.notaAlumno(i, j), ANCHO_COLUMNA);
+            }
+            salida.append('\n');
+        }
+    }
+
+    /**
+     * Escribe los nombres de los alumnos y debajo sus medias (el formato de Grupo.muestraMediaAlumnos).
+     * @param grupo Grupo del informe.
+     * @param medias Medias ya calculadas de los alumnos, o null para calcularlas al escribir.
+     * @throws IOException Si falla la escritura.
+     */
+    public void mediasAlumnos(Grupo grupo, double[] medias) throws IOException {
+        salida.append("----------Media de los alumnos------------\n");
+        // Encabezado con nombres de los alumnos (sin los dados de baja)
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (!grupo.alumnoDadoDeBaja(i)) {
+                texto(grupo.getAlumno(i), ANCHO_COLUMNA);
+            }
+        }
+        salida.append('\n');
+
+        // Medias de cada alumno
+        for (int i = 0; i < grupo.getTotalAlumnos(); i++) {
+            if (!grupo.alumnoDadoDeBaja(i)) {
+                decimal(medias != null ? medias[i] : grupo.mediaAlumno(i), ANCHO_COLUMNA);
+            }
+        }
+    }
+
+    /**
+     * Escribe los nombres de las asignaturas y debajo sus medias (el formato de Grupo.mostrarMedias).
+     * @param grupo Grupo del informe.
+     * @throws IOException Si falla la escritura.
+     */
+    public void mediasAsignaturas(Grupo grupo) throws IOException {
+        for (int j = 0; j < grupo.getTotalAsignaturas(); j++) {
+            texto(grupo.getAsignatura(j).getNombreAsignatura(), ANCHO_MEDIA);
+        }
+        salida.append('\n');
+        for (int j = 0; j < grupo.getTotalAsignaturas(); j++) {
+            texto(String.valueOf(grupo.getAsignatura(j).media()), ANCHO_MEDIA);
+        }
+    }
+
+    /**
+     * Escribe un texto alineado a la izquierda y rellenado con espacios hasta el ancho indicado.
+     * @param texto Texto a escribir.
+     * @param ancho Ancho mínimo.
+     */
+    private void texto(String texto, int ancho) throws IOException {
+        salida.append(texto);
+        rellenar(ancho - texto.length());
+    }
+
+    /**
+     * Escribe un número con dos decimales, alineado a la izquierda y rellenado hasta el ancho indicado.
+     * @param valor Número a escribir.
+     * @param ancho Ancho mínimo.
+     */
+    private void decimal(double valor, int ancho) throws IOException {
+        if (!(Math.abs(valor) * 100 < LIMITE_CENTESIMAS)) { // También NaN e infinitos.
+            texto(String.format("%.2f", valor), ancho);
+            return;
+        }
+        int escritos = 0;
+        long centesimas = centesimas(Math.abs(valor));
+        if (Double.doubleToRawLongBits(valor) < 0) { // Negativo (incluido -0.0), como String.format.
+            salida.append('-');
+            escritos++;
+        }
+        escritos += entero(centesimas / 100);
+        long decimales = centesimas % 100;
+        salida.append(separadorDecimal)
+                .append((char) ('0' + decimales / 10))
+                .append((char) ('0' + decimales % 10));
+        rellenar(ancho - escritos - 3);
+    }
+
+    /**
+     * Redondea a centésimas como String.format("%.2f"), que redondea la mitad hacia arriba sobre
+     * la representación decimal más corta del número y no sobre su valor binario exacto
+     * (2.675 da 2.68 aunque el double sea 2.67499999...). Lejos de la mitad entre dos centésimas
+     * ambas formas coinciden y basta con multiplicar por 100; en el margen donde el error del
+     * producto podría cambiar el resultado se usa el propio String.format, que es un caso muy raro.
+     * @param valor Número no negativo menor que LIMITE_CENTESIMAS / 100.
+     * @return Número de centésimas.
+     */
+    private static long centesimas(double valor) {
+        double producto = valor * 100;
+        double suelo = Math.floor(producto);
+        double resto = producto - suelo;
+        if (Math.abs(resto - 0.5) > MARGEN_MITAD * Math.max(1, producto)) {
+            return (long) suelo + (resto > 0.5 ? 1 : 0);
+        }
+        String texto = String.format(Locale.ROOT, "%.2f", valor);
+        int punto = texto.length() - 3;
+        return Long.parseLong(texto.substring(0, punto)) * 100 + Long.parseLong(texto.substring(punto + 1));
+    }
+
+    /**
+     * Escribe un entero no negativo.
+     * @param valor Entero a escribir.
+     * @return Número de cifras escritas.
+     */
+    private int entero(long valor) throws IOException {
+        long divisor = 1;
+        int cifras = 1;
+        while (divisor <= valor / 10) {
+            divisor *= 10;
+            cifras++;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            salida.append((char) ('0' + (valor / divisor) % 10));
+        }
+        return cifras;
+    }
+
+    private void rellenar(int espacios) throws IOException {
+        for (int i = 0; i < espacios; i++) {
+            salida.append(' ');
+        }
+    }
+
+    /**
+     * Appendable que acumula el texto y lo escribe en un PrintStream por bloques.
+     * Se usa para mostrar los informes por consola sin construirlos completos en memoria.
+     */
+    static class SalidaPorBloques implements Appendable {
+
+        private final PrintStream destino;                 // Donde se escribe cada bloque.
+        private final StringBuilder bloque = new StringBuilder(TAMANO_BLOQUE);
+
+        SalidaPorBloques(PrintStream destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Appendable append(CharSequence texto) {
+            bloque.append(texto);
+            vaciarSiLleno();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence texto, int desde, int hasta) {
+            bloque.append(texto, desde, hasta);
+            vaciarSiLleno();
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            bloque.append(c);
+            vaciarSiLleno();
+            return this;
+        }
+
+        private void vaciarSiLleno() {
+            if (bloque.length() >= TAMANO_BLOQUE) {
+                vaciar();
+            }
+        }
+
+        /**
+         * Escribe el texto pendiente.
+         */
+        void vaciar() {
+            destino.print(bloque);
+            bloque.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda y carga un grupo completo en un fichero binario (instantánea).
+ * Formato (little-endian), versión 3:
+ * <pre>
+ *   int    número mágico "GRPS"
+ *   int    versión
+ *   byte   modo del grupo (0 = almacén propio por asignatura, 1 = matriz contigua)
+ *   int    total de alumnos
+ *   int    total de asignaturas
+ *   texto  nombre del grupo
+ *   texto  nombre de cada alumno
+ *   texto  nombre de cada asignatura
+ *   por cada asignatura:
+ *     byte   almacén (0 = array, 1 = compacto, 2 = por segmentos; siempre 0 en el modo 1)
+ *     notas  un double por alumno, o un byte en décimas si el almacén es compacto
+ *   int    total de alumnos dados de baja, seguido del índice de cada uno
+ * </pre>
+ * Así el grupo se carga con el mismo almacenamiento con el que se guardó, salvo las asignaturas
+ * proyectadas en memoria, que se guardan como arrays: la instantánea contiene todas las notas y
+ * cargarla no toca ningún otro fichero. Para seguir trabajando sobre un fichero proyectado hay
+ * que cargar la instantánea y pasar sus notas a Grupo.abrirMapeado.
+ * Las instantáneas de versión 3 con modo 3 (proyectado, que guardaba además la ruta del fichero)
+ * se cargan como arrays sin abrir esa ruta.
+ * Los huecos de las bajas se guardan como los demás alumnos, para que los índices no cambien
+ * al cargar el grupo. Se pueden cargar también las versiones 1 (sin bajas) y 2, que tenían un
+ * único modo para todo el grupo (0 = arrays, 1 = matriz contigua, 2 = compacto).
+ * Cada texto es un int con su longitud en bytes seguido del texto en UTF-8.
+ * La lectura y la escritura se hacen a través de un FileChannel con un buffer directo grande.
+ */
+public class InstantaneaGrupo {
+
+    static final int NUMERO_MAGICO = 0x47525053; // "GRPS"
+    static final int VERSION = 3;
+
+    static final byte MODO_ARRAYS = 0;
+    static final byte MODO_MATRIZ = 1;
+    static final byte MODO_COMPACTO = 2;  // Solo en las versiones 1 y 2.
+    static final byte MODO_PROYECTADO = 3; // Solo se lee: se carga como MODO_ARRAYS.
+
+    static final byte ALMACEN_ARRAY = 0;
+    static final byte ALMACEN_COMPACTO = 1;
+    static final byte ALMACEN_SEGMENTADO = 2;
+
+    private static final int TAMANO_BUFFER = 8 << 20; // 8 MB
+
+    private final FileChannel canal; // Canal del fichero.
+    private final ByteBuffer buffer; // Buffer directo para las lecturas y escrituras.
+
+    private InstantaneaGrupo(FileChannel canal) {
+        this.canal = canal;
+        this.buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Guarda un grupo en un fichero, sustituyendo su contenido.
+     * @param grupo Grupo a guardar (todas sus asignaturas deben tener notas).
+     * @param fichero Fichero de destino.
+     * @throws IOException Si el fichero no se puede escribir o falta alguna asignatura.
+     */
+    public static void guardar(Grupo grupo, Path fichero) throws IOException {
+        int totalAlumnos = grupo.getTotalAlumnos();
+        int totalAsignaturas = grupo.getTotalAsignaturas();
+        for (int j = 0; j < totalAsignaturas; j++) {
+            Asignatura asignatura = grupo.getAsignatura(j);
+            if (asignatura == null || asignatura.totalNotas() != totalAlumnos) {
+                throw new IOException("La asignatura " + (j + 1) + " no tiene las notas de todos los alumnos");
+            }
+        }
+        byte modo = grupo.usaMatrizContigua() ? MODO_MATRIZ : MODO_ARRAYS;
+
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            InstantaneaGrupo escritor = new InstantaneaGrupo(canal);
+            ByteBuffer buffer = escritor.buffer;
+            buffer.putInt(NUMERO_MAGICO).putInt(VERSION).put(modo)
+                    .putInt(totalAlumnos).putInt(totalAsignaturas);
+            escritor.escribirTexto(grupo.getNombreGrupo());
+            for (int i = 0; i < totalAlumnos; i++) {
+                escritor.escribirTexto(grupo.getAlumno(i));
+            }
+            for (int j = 0; j < totalAsignaturas; j++) {
+                escritor.escribirTexto(grupo.getAsignatura(j).getNombreAsignatura());
+            }
+
+            for (int j = 0; j < totalAsignaturas; j++) {
+                AlmacenNotas notas = grupo.getAsignatura(j).getAlmacen();
+                byte almacen = modo == MODO_ARRAYS ? tipoAlmacen(notas) : ALMACEN_ARRAY;
+                if (!buffer.hasRemaining()) {
+                    escritor.vaciar();
+                }
+                buffer.put(almacen);
+                if (almacen == ALMACEN_COMPACTO) {
+                    escritor.escribirBytes(((NotasCompactas) notas).decimas(), totalAlumnos);
+                } else {
+                    for (int i = 0; i < totalAlumnos; i++) {
+                        if (buffer.remaining() < Double.BYTES) {
+                            escritor.vaciar();
+                        }
+                        buffer.putDouble(notas.nota(i));
+                    }
+                }
+            }
+
+            if (buffer.remaining() < Integer.BYTES) {
+                escritor.vaciar();
+            }
+            buffer.putInt(grupo.getTotalBajas());
+            for (int i = 0; i < totalAlumnos; i++) {
+                if (grupo.alumnoDadoDeBaja(i)) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        escritor.vaciar();
+                    }
+                    buffer.putInt(i);
+                }
+            }
+            escritor.vaciar();
+        }
+    }
+
+    /**
+     * @param notas Almacén de una asignatura.
+     * @return Tipo de almacén con el que se guarda.
+     */
+    private static byte tipoAlmacen(AlmacenNotas notas) {
+        if (notas instanceof NotasCompactas) {
+            return ALMACEN_COMPACTO;
+        }
+        return notas instanceof NotasSegmentadas ? ALMACEN_SEGMENTADO : ALMACEN_ARRAY;
+    }
+
+    /**
+     * Carga un grupo guardado con {@link #guardar(Grupo, Path)}, recuperando su modo de almacenamiento
+     * y sus bajas.
+     * @param fichero Fichero de origen.
+     * @return Grupo leído.
+     * @throws IOException Si el fichero no se puede leer o no es una instantánea válida.
+     */
+    public static Grupo cargar(Path fichero) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            InstantaneaGrupo lector = new InstantaneaGrupo(canal);
+            ByteBuffer buffer = lector.buffer;
+            buffer.flip(); // El buffer empieza vacío.
+
+            lector.asegurar(17);
+            if (buffer.getInt() != NUMERO_MAGICO) {
+                throw new IOException("El fichero " + fichero + " no es una instantánea de grupo");
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            byte modo = buffer.get();
+            int totalAlumnos = buffer.getInt();
+            int totalAsignaturas = buffer.getInt();
+            if (modo < MODO_ARRAYS || modo > (version < 3 ? MODO_COMPACTO : MODO_PROYECTADO)
+                    || (version >= 3 && modo == MODO_COMPACTO) || totalAlumnos < 0 || totalAsignaturas < 0) {
+                throw new IOException("Cabecera de instantánea no válida en " + fichero);
+            }
+            if (modo == MODO_PROYECTADO) {
+                lector.leerTexto(); // Ruta del fichero proyectado: no se abre.
+                modo = MODO_ARRAYS;
+            }
+
+            String nombreGrupo = lector.leerTexto();
+            String[] alumnos = new String[totalAlumnos];
+            for (int i = 0; i < totalAlumnos; i++) {
+                alumnos[i] = lector.leerTexto();
+            }
+            String[] nombresAsignaturas = new String[totalAsignaturas];
+            for (int j = 0; j < totalAsignaturas; j++) {
+                nombresAsignaturas[j] = lector.leerTexto();
+            }
+
+            Asignatura[] asignaturas = new Asignatura[totalAsignaturas];
+            for (int j = 0; j < totalAsignaturas; j++) {
+                byte almacen = lector.leerAlmacen(version, modo);
+                if (almacen == ALMACEN_COMPACTO) {
+                    byte[] decimas = new byte[totalAlumnos];
+                    lector.leerBytes(decimas);
+                    asignaturas[j] = new Asignatura(nombresAsignaturas[j], new NotasCompactas(decimas));
+                } else {
+                    double[] notas = new double[totalAlumnos];
+                    lector.leerDoubles(notas);
+                    asignaturas[j] = almacen == ALMACEN_SEGMENTADO
+                            ? new Asignatura(nombresAsignaturas[j], new NotasSegmentadas(new NotasArray(notas)))
+                            : new Asignatura(nombresAsignaturas[j], notas);
+                }
+            }
+            Grupo grupo = new Grupo(nombreGrupo, alumnos, asignaturas);
+            if (modo == MODO_MATRIZ) {
+                grupo.usarMatrizContigua();
+            }
+            if (version >= 2) {
+                lector.leerBajas(grupo, totalAlumnos);
+            }
+            return grupo;
+        }
+    }
+
+    /**
+     * Lee el tipo de almacén de una asignatura (en las versiones 1 y 2 lo da el modo del grupo).
+     * @param version Versión de la instantánea.
+     * @param modo Modo del grupo.
+     * @return Tipo de almacén.
+     */
+    private byte leerAlmacen(int version, byte modo) throws IOException {
+        if (version < 3) {
+            return modo == MODO_COMPACTO ? ALMACEN_COMPACTO : ALMACEN_ARRAY;
+        }
+        asegurar(1);
+        byte almacen = buffer.get();
+        if (almacen < ALMACEN_ARRAY || almacen > ALMACEN_SEGMENTADO || (modo != MODO_ARRAYS && almacen != ALMACEN_ARRAY)) {
+            throw new IOException("Tipo de almacén no válido: " + almacen);
+        }
+        return almacen;
+    }
+
+    /**
+     * Lee la lista de bajas y las marca en el grupo sin pasar por eliminarAlumno,
+     * que escribe en consola y puede empezar a compactar el grupo mientras se carga.
+     * @param grupo Grupo recién cargado.
+     * @param totalAlumnos Número de alumnos del grupo.
+     */
+    private void leerBajas(Grupo grupo, int totalAlumnos) throws IOException {
+        asegurar(Integer.BYTES);
+        int totalBajas = buffer.getInt();
+        if (totalBajas < 0 || totalBajas > totalAlumnos) {
+            throw new IOException("Número de bajas no válido: " + totalBajas);
+        }
+        long[] bajas = new long[(totalAlumnos + 63) >>> 6];
+        for (int k = 0; k < totalBajas; k++) {
+            asegurar(Integer.BYTES);
+            int indice = buffer.getInt();
+            if (indice < 0 || indice >= totalAlumnos || (bajas[indice >>> 6] & 1L << indice) != 0) {
+                throw new IOException("Baja no válida: " + indice);
+            }
+            bajas[indice >>> 6] |= 1L << indice;
+        }
+        grupo.restaurarBajas(bajas, totalBajas);
+    }
+
+    /**
+     * Escribe en el fichero el contenido del buffer y lo deja vacío.
+     */
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void escribirTexto(String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (buffer.remaining() < Integer.BYTES) {
+            vaciar();
+        }
+        buffer.putInt(bytes.length);
+        escribirBytes(bytes, bytes.length);
+    }
+
+    private void escribirBytes(byte[] bytes, int longitud) throws IOException {
+        int escritos = 0;
+        while (escritos < longitud) {
+            if (!buffer.hasRemaining()) {
+                vaciar();
+            }
+            int cantidad = Math.min(buffer.remaining(), longitud - escritos);
+            buffer.put(bytes, escritos, cantidad);
+            escritos += cantidad;
+        }
+    }
+
+    /**
+     * Lee del fichero hasta que el buffer tenga al menos el número de bytes pedido
+     * (como mucho el tamaño del buffer).
+     * @param bytes Bytes necesarios.
+     */
+    private void asegurar(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (canal.read(buffer) < 0) {
+                throw new EOFException("Instantánea incompleta");
+            }
+        }
+        buffer.flip();
+    }
+
+    private String leerTexto() throws IOException {
+        asegurar(Integer.BYTES);
+        byte[] bytes = new byte[buffer.getInt()];
+        leerBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void leerBytes(byte[] destino) throws IOException {
+        int leidos = 0;
+        while (leidos < destino.length) {
+            asegurar(1);
+            int cantidad = Math.min(buffer.remaining(), destino.length - leidos);
+            buffer.get(destino, leidos, cantidad);
+            leidos += cantidad;
+        }
+    }
+
+    private void leerDoubles(double[] destino) throws IOException {
+        int leidos = 0;
+        while (leidos < destino.length) {
+            asegurar(Double.BYTES);
+            int cantidad = Math.min(buffer.remaining() / Double.BYTES, destino.length - leidos);
+            DoubleBuffer doubles = buffer.asDoubleBuffer();
+            doubles.get(destino, leidos, cantidad);
+            buffer.position(buffer.position() + cantidad * Double.BYTES);
+            leidos += cantidad;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Implementación de las reducciones con cuatro acumuladores independientes y sin saltos:
+ * cada vuelta del bucle procesa cuatro notas, como los carriles de una instrucción SIMD.
+ * Al no depender cada suma de la anterior, el procesador puede solapar las operaciones,
+ * y los mínimos, máximos y recuentos se calculan sin bifurcaciones que fallen la predicción.
+ */
+class KernelDesenrollado implements KernelNotas {
+
+    @Override
+    public double suma(double[] notas, int desde, int hasta) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = desde;
+        for (; i + 3 < hasta; i += 4) {
+            s0 += notas[i];
+            s1 += notas[i + 1];
+            s2 += notas[i + 2];
+            s3 += notas[i + 3];
+        }
+        for (; i < hasta; i++) {
+            s0 += notas[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public double minimo(double[] notas, int desde, int hasta) {
+        double m0 = Double.MAX_VALUE, m1 = Double.MAX_VALUE, m2 = Double.MAX_VALUE, m3 = Double.MAX_VALUE;
+        int i = desde;
+        for (; i + 3 < hasta; i += 4) {
+            m0 = notas[i] < m0 ? notas[i] : m0;
+            m1 = notas[i + 1] < m1 ? notas[i + 1] : m1;
+            m2 = notas[i + 2] < m2 ? notas[i + 2] : m2;
+            m3 = notas[i + 3] < m3 ? notas[i + 3] : m3;
+        }
+        for (; i < hasta; i++) {
+            m0 = notas[i] < m0 ? notas[i] : m0;
+        }
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    @Override
+    public double maximo(double[] notas, int desde, int hasta) {
+        double m0 = -Double.MAX_VALUE, m1 = -Double.MAX_VALUE, m2 = -Double.MAX_VALUE, m3 = -Double.MAX_VALUE;
+        int i = desde;
+        for (; i + 3 < hasta; i += 4) {
+            m0 = notas[i] > m0 ? notas[i] : m0;
+            m1 = notas[i + 1] > m1 ? notas[i + 1] : m1;
+            m2 = notas[i + 2] > m2 ? notas[i + 2] : m2;
+            m3 = notas[i + 3] > m3 ? notas[i + 3] : m3;
+        }
+        for (; i < hasta; i++) {
+            m0 = notas[i] > m0 ? notas[i] : m0;
+        }
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    @Override
+    public int contarMenores(double[] notas, int desde, int hasta, double limite) {
+        int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+        int i = desde;
+        for (; i + 3 < hasta; i += 4) {
+            c0 += notas[i] < limite ? 1 : 0;
+            c1 += notas[i + 1] < limite ? 1 : 0;
+            c2 += notas[i + 2] < limite ? 1 : 0;
+            c3 += notas[i + 3] < limite ? 1 : 0;
+        }
+        for (; i < hasta; i++) {
+            c0 += notas[i] < limite ? 1 : 0;
+        }
+        return (c0 + c1) + (c2 + c3);
+    }
+
+    @Override
+    public void reducir(double[] notas, int desde, int hasta, double limite, ReduccionNotas resultado) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        double q0 = 0, q1 = 0, q2 = 0, q3 = 0;
+        int c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+        double n0 = Double.MAX_VALUE, n1 = Double.MAX_VALUE, n2 = Double.MAX_VALUE, n3 = Double.MAX_VALUE;
+        double x0 = -Double.MAX_VALUE, x1 = -Double.MAX_VALUE, x2 = -Double.MAX_VALUE, x3 = -Double.MAX_VALUE;
+        int i = desde;
+        for (; i + 3 < hasta; i += 4) {
+            double a = notas[i];
+            double b = notas[i + 1];
+            double c = notas[i + 2];
+            double d = notas[i + 3];
+            s0 += a;
+            s1 += b;
+            s2 += c;
+            s3 += d;
+            q0 += a * a;
+            q1 += b * b;
+            q2 += c * c;
+            q3 += d * d;
+            c0 += a < limite ? 1 : 0;
+            c1 += b < limite ? 1 : 0;
+            c2 += c < limite ? 1 : 0;
+            c3 += d < limite ? 1 : 0;
+            n0 = a < n0 ? a : n0;
+            n1 = b < n1 ? b : n1;
+            n2 = c < n2 ? c : n2;
+            n3 = d < n3 ? d : n3;
+            x0 = a > x0 ? a : x0;
+            x1 = b > x1 ? b : x1;
+            x2 = c > x2 ? c : x2;
+            x3 = d > x3 ? d : x3;
+        }
+        for (; i < hasta; i++) {
+            double a = notas[i];
+            s0 += a;
+            q0 += a * a;
+            c0 += a < limite ? 1 : 0;
+            n0 = a < n0 ? a : n0;
+            x0 = a > x0 ? a : x0;
+        }
+        resultado.suma += (s0 + s1) + (s2 + s3);
+        resultado.sumaCuadrados += (q0 + q1) + (q2 + q3);
+        resultado.menores += (c0 + c1) + (c2 + c3);
+        resultado.minimo = Math.min(resultado.minimo, Math.min(Math.min(n0, n1), Math.min(n2, n3)));
+        resultado.maximo = Math.max(resultado.maximo, Math.max(Math.max(x0, x1), Math.max(x2, x3)));
+    }
+}
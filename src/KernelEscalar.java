@@ -0,0 +1,75 @@
+/**
+ * Implementación sencilla de las reducciones: un bucle con un único acumulador.
+ */
+class KernelEscalar implements KernelNotas {
+
+    @Override
+    public double suma(double[] notas, int desde, int hasta) {
+        double suma = 0;
+        for (int i = desde; i < hasta; i++) {
+            suma += notas[i];
+        }
+        return suma;
+    }
+
+    @Override
+    public double minimo(double[] notas, int desde, int hasta) {
+        double minimo = Double.MAX_VALUE;
+        for (int i = desde; i < hasta; i++) {
+            if (notas[i] < minimo) {
+                minimo = notas[i];
+            }
+        }
+        return minimo;
+    }
+
+    @Override
+    public double maximo(double[] notas, int desde, int hasta) {
+        double maximo = -Double.MAX_VALUE;
+        for (int i = desde; i < hasta; i++) {
+            if (notas[i] > maximo) {
+                maximo = notas[i];
+            }
+        }
+        return maximo;
+    }
+
+    @Override
+    public int contarMenores(double[] notas, int desde, int hasta, double limite) {
+        int total = 0;
+        for (int i = desde; i < hasta; i++) {
+            if (notas[i] < limite) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void reducir(double[] notas, int desde, int hasta, double limite, ReduccionNotas resultado) {
+        double suma = 0;
+        double sumaCuadrados = 0;
+        int menores = 0;
+        double minimo = resultado.minimo;
+        double maximo = resultado.maximo;
+        for (int i = desde; i < hasta; i++) {
+            double nota = notas[i];
+            suma += nota;
+            sumaCuadrados += nota * nota;
+            if (nota < limite) {
+                menores++;
+            }
+            if (nota < minimo) {
+                minimo = nota;
+            }
+            if (nota > maximo) {
+                maximo = nota;
+            }
+        }
+        resultado.suma += suma;
+        resultado.sumaCuadrados += sumaCuadrados;
+        resultado.menores += menores;
+        resultado.minimo = minimo;
+        resultado.maximo = maximo;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Operaciones de reducción sobre tramos de arrays de notas: suma, mínimo, máximo
+ * y recuento de notas por debajo de un límite, por separado o todas en una sola pasada.
+ * La implementación se elige una vez al arrancar con la propiedad del sistema
+ * "notas.kernel" ("escalar" por defecto, "desenrollado" o "vectorial"). La escalar suma en el
+ * mismo orden que el bucle original; las otras dos suman con varios acumuladores, que es más
+ * rápido pero puede cambiar el último bit de las sumas (y las medias que se muestran), así que
+ * hay que pedirlas expresamente. La vectorial usa la Vector API, que en JDK 17 es un módulo
+ * incubado: solo existe si se ha compilado con el perfil "vector" de Maven y se ejecuta con
+ * --add-modules jdk.incubator.vector.
+ */
+public interface KernelNotas {
+
+    /**
+     * Implementación elegida al arrancar.
+     */
+    KernelNotas ACTUAL = elegir(System.getProperty("notas.kernel", "escalar"));
+
+    /**
+     * Devuelve la implementación correspondiente a un nombre.
+     * @param nombre "escalar", "desenrollado" o "vectorial".
+     * @return Implementación del kernel; la escalar si el nombre no se reconoce y la
+     *         desenrollada si la vectorial no está disponible (se ha pedido sumar por bloques).
+     */
+    static KernelNotas elegir(String nombre) {
+        if (nombre.equals("vectorial")) {
+            try {
+                // Se carga por nombre porque solo se compila con el perfil "vector".
+                return (KernelNotas) Class.forName("KernelVectorial").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                System.out.println("[!] Kernel vectorial no disponible (" + e + "), se usa el desenrollado");
+                return new KernelDesenrollado();
+            }
+        } else if (nombre.equals("desenrollado")) {
+            return new KernelDesenrollado();
+        } else {
+            return new KernelEscalar();
+        }
+    }
+
+    /**
+     * Suma las notas del tramo [desde, hasta).
+     * @param notas Array de notas.
+     * @param desde Primera posición (incluida).
+     * @param hasta Última posición (excluida).
+     * @return Suma de las notas.
+     */
+    double suma(double[] notas, int desde, int hasta);
+
+    /**
+     * Calcula la nota mínima del tramo [desde, hasta).
+     * @param notas Array de notas.
+     * @param desde Primera posición (incluida).
+     * @param hasta Última posición (excluida).
+     * @return Nota mínima o Double.MAX_VALUE si el tramo está vacío.
+     */
+    double minimo(double[] notas, int desde, int hasta);
+
+    /**
+     * Calcula la nota máxima del tramo [desde, hasta).
+     * @param notas Array de notas.
+     * @param desde Primera posición (incluida).
+     * @param hasta Última posición (excluida).
+     * @return Nota máxima o -Double.MAX_VALUE si el tramo está vacío.
+     */
+    double maximo(double[] notas, int desde, int hasta);
+
+    /**
+     * Cuenta las notas del tramo [desde, hasta) menores que un límite.
+     * @param notas Array de notas.
+     * @param desde Primera posición (incluida).
+     * @param hasta Última posición (excluida).
+     * @param limite Valor de referencia.
+     * @return Número de notas menores que el límite.
+     */
+    int contarMenores(double[] notas, int desde, int hasta, double limite);
+
+    /**
+     * Calcula en una sola pasada la suma, la suma de cuadrados, el recuento de notas menores
+     * que un límite, el mínimo y el máximo del tramo [desde, hasta) y los acumula en un resultado.
+     * La suma es la misma que daría suma() sobre el tramo.
+     * @param notas Array de notas.
+     * @param desde Primera posición (incluida).
+     * @param hasta Última posición (excluida).
+     * @param limite Valor de referencia para el recuento.
+     * @param resultado Resultado donde se acumula el tramo.
+     */
+    void reducir(double[] notas, int desde, int hasta, double limite, ReduccionNotas resultado);
+}
@@ -0,0 +1,119 @@
+/**
+ * Matriz de notas de un grupo guardada en memoria contigua.
+ * Las notas se guardan dos veces: ordenadas por asignatura (cada asignatura ocupa
+ * un tramo consecutivo) y ordenadas por alumno (cada alumno ocupa un tramo consecutivo).
+ * Así los recorridos por asignatura y por alumno leen memoria secuencial.
+ */
+class MatrizNotas {
+
+    private final int totalAlumnos;     // Número de alumnos (filas).
+    private final int totalAsignaturas; // Número de asignaturas (columnas).
+    private final double[] porAsignatura; // Notas en posición asignatura * totalAlumnos + alumno.
+    private final double[] porAlumno;     // Notas en posición alumno * totalAsignaturas + asignatura.
+
+    /**
+     * Constructor que crea la matriz con todas las notas a 0.
+     * @param totalAlumnos Número de alumnos.
+     * @param totalAsignaturas Número de asignaturas.
+     */
+    MatrizNotas(int totalAlumnos, int totalAsignaturas) {
+        this.totalAlumnos = totalAlumnos;
+        this.totalAsignaturas = totalAsignaturas;
+        this.porAsignatura = new double[totalAlumnos * totalAsignaturas];
+        this.porAlumno = new double[totalAlumnos * totalAsignaturas];
+    }
+
+    /**
+     * Devuelve una vista de la matriz con las notas de una asignatura.
+     * @param asignatura Índice de la asignatura.
+     * @return Almacén de notas que lee y escribe en la matriz.
+     */
+    AlmacenNotas columna(int asignatura) {
+        return new Columna(asignatura);
+    }
+
+    /**
+     * Devuelve la nota de un alumno en una asignatura.
+     * @param alumno Índice del alumno.
+     * @param asignatura Índice de la asignatura.
+     * @return Nota del alumno.
+     */
+    double nota(int alumno, int asignatura) {
+        return porAlumno[alumno * totalAsignaturas + asignatura];
+    }
+
+    /**
+     * Suma las notas de un alumno en todas las asignaturas.
+     * @param alumno Índice del alumno.
+     * @return Suma de las notas.
+     */
+    double sumaAlumno(int alumno) {
+        int inicio = alumno * totalAsignaturas;
+        return KernelNotas.ACTUAL.suma(porAlumno, inicio, inicio + totalAsignaturas);
+    }
+
+    /**
+     * Cuenta las asignaturas suspendidas (nota < 5) por un alumno.
+     * @param alumno Índice del alumno.
+     * @return Número de suspensos.
+     */
+    int suspensosAlumno(int alumno) {
+        int inicio = alumno * totalAsignaturas;
+        return KernelNotas.ACTUAL.contarMenores(porAlumno, inicio, inicio + totalAsignaturas, 5);
+    }
+
+    /**
+     * Vista de una columna de la matriz. Las escrituras actualizan las dos copias.
+     */
+    private class Columna implements AlmacenNotas {
+
+        private final int asignatura; // Índice de la asignatura.
+        private final int inicio;     // Posición de la primera nota en porAsignatura.
+
+        Columna(int asignatura) {
+            this.asignatura = asignatura;
+            this.inicio = asignatura * totalAlumnos;
+        }
+
+        @Override
+        public int longitud() {
+            return totalAlumnos;
+        }
+
+        @Override
+        public double nota(int alumno) {
+            return porAsignatura[inicio + alumno];
+        }
+
+        @Override
+        public void ponerNota(int alumno, double nota) {
+            porAsignatura[inicio + alumno] = nota;
+            porAlumno[alumno * totalAsignaturas + asignatura] = nota;
+        }
+
+        @Override
+        public double suma() {
+            return KernelNotas.ACTUAL.suma(porAsignatura, inicio, inicio + totalAlumnos);
+        }
+
+        @Override
+        public double minimo() {
+            return KernelNotas.ACTUAL.minimo(porAsignatura, inicio, inicio + totalAlumnos);
+        }
+
+        @Override
+        public double maximo() {
+            return KernelNotas.ACTUAL.maximo(porAsignatura, inicio, inicio + totalAlumnos);
+        }
+
+        @Override
+        public int contarMenores(double limite) {
+            return KernelNotas.ACTUAL.contarMenores(porAsignatura, inicio, inicio + totalAlumnos, limite);
+        }
+
+        @Override
+        public void reducir(double limite, ReduccionNotas resultado) {
+            KernelNotas.ACTUAL.reducir(porAsignatura, inicio, inicio + totalAlumnos, limite, resultado);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Clase inmutable con las métricas acumuladas de una operación.
+ * JMX la muestra como un CompositeData con un campo por getter.
+ */
+public final class MetricaOperacion {
+
+    private final String nombre;       // Nombre de la operación.
+    private final long llamadas;       // Número de llamadas medidas.
+    private final long nanosTotales;   // Suma de las duraciones.
+    private final long bytesReservados; // Bytes reservados en total durante las llamadas.
+    private final long nanosP50;       // Percentil 50 de la duración (límite superior del intervalo).
+    private final long nanosP99;       // Percentil 99 de la duración (límite superior del intervalo).
+    private final long nanosMaximo;    // Duración máxima.
+
+    /**
+     * Constructor con todos los valores.
+     * @param nombre Nombre de la operación.
+     * @param llamadas Número de llamadas.
+     * @param nanosTotales Suma de las duraciones en nanosegundos.
+     * @param bytesReservados Bytes reservados en total.
+     * @param nanosP50 Percentil 50 de la duración.
+     * @param nanosP99 Percentil 99 de la duración.
+     * @param nanosMaximo Duración máxima.
+     */
+    public MetricaOperacion(String nombre, long llamadas, long nanosTotales, long bytesReservados,
+                            long nanosP50, long nanosP99, long nanosMaximo) {
+        this.nombre = nombre;
+        this.llamadas = llamadas;
+        this.nanosTotales = nanosTotales;
+        this.bytesReservados = bytesReservados;
+        this.nanosP50 = nanosP50;
+        this.nanosP99 = nanosP99;
+        this.nanosMaximo = nanosMaximo;
+    }
+
+    /**
+     * @return Nombre de la operación.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return Número de llamadas medidas.
+     */
+    public long getLlamadas() {
+        return llamadas;
+    }
+
+    /**
+     * @return Suma de las duraciones en nanosegundos.
+     */
+    public long getNanosTotales() {
+        return nanosTotales;
+    }
+
+    /**
+     * @return Bytes reservados en total durante las llamadas.
+     */
+    public long getBytesReservados() {
+        return bytesReservados;
+    }
+
+    /**
+     * @return Percentil 50 de la duración en nanosegundos.
+     */
+    public long getNanosP50() {
+        return nanosP50;
+    }
+
+    /**
+     * @return Percentil 99 de la duración en nanosegundos.
+     */
+    public long getNanosP99() {
+        return nanosP99;
+    }
+
+    /**
+     * @return Duración máxima en nanosegundos.
+     */
+    public long getNanosMaximo() {
+        return nanosMaximo;
+    }
+
+    /**
+     * @return Duración media en nanosegundos, o 0 si no hay llamadas.
+     */
+    public long getNanosMedia() {
+        return llamadas > 0 ? nanosTotales / llamadas : 0;
+    }
+
+    /**
+     * Devuelve una representación en cadena de las métricas.
+     * @return Cadena con las métricas.
+     */
+    @Override
+    public String toString() {
+        return nombre + ": " + llamadas + " llamadas, media " + getNanosMedia() + " ns, p50 " + nanosP50
+                + " ns, p99 " + nanosP99 + " ns, máx " + nanosMaximo + " ns, " + bytesReservados + " bytes";
+    }
+}
@@ -0,0 +1,296 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de las operaciones de Grupo y Asignatura: número de llamadas, histograma de
+ * latencias y bytes reservados por el hilo durante la operación.
+ * Las operaciones medidas empiezan con {@code long medida = Metricas.inicio();} y terminan con
+ * {@code Metricas.fin(Operacion.X, medida);}. Con las métricas desactivadas inicio() solo lee
+ * un campo y devuelve 0, y fin() no hace nada, así que pueden quedarse siempre en el código.
+ * Se activan con la propiedad del sistema {@code notas.metricas=true}, con {@link #activar()}
+ * o desde JMX (objeto {@value #NOMBRE_JMX}).
+ */
+public final class Metricas implements MetricasMXBean {
+
+    /** Nombre con el que se registran las métricas en JMX. */
+    public static final String NOMBRE_JMX = "notas:type=Metricas";
+
+    /**
+     * Operaciones medidas. Las operaciones de Asignatura van primero y las de Grupo después;
+     * las variantes de una misma consulta (mínimo y máximo aparte) comparten operación.
+     * No se miden los getters y demás accesos de coste constante (como notaAlumno, que se
+     * llama dentro de los recorridos por alumno), la lectura de datos desde teclado ni los
+     * cambios de configuración.
+     */
+    public enum Operacion {
+        CAMBIAR_NOTA, CAMBIAR_NOTAS, ESTADISTICAS, ORDENAR, CUANTIL, ANALIZA_GRUPO,
+        RESUMEN, MEDIA, MINIMO, MAXIMO, TOTAL_APROBADOS_SUSPENSOS, MEJOR_PEOR_NOTA,
+        INDICES_APROBADOS_SUSPENSOS, MASCARA_APROBADOS_SUSPENSOS, PRIMER_MENOR, COMPACTAR,
+        CAMBIAR_NOTAS_GRUPO, MEJOR_ALUMNO_MEDIA, ALUMNOS_EXTREMOS, MUESTRA_REPETIDORES,
+        ANALIZA_ASIGNATURAS, ANALIZA_CURSO, ESTADISTICAS_GRUPO, INFORME,
+        ALUMNO_MEDIA, ALUMNO_SUSPENSOS, MEDIA_ASIGNATURA, ASIGNATURA_EXTREMA, MUESTRA_MEDIAS,
+        SUSPENSOS_GRUPO, BUSCAR_ALUMNO, ALTA_ALUMNO, ALTA_ASIGNATURA, BAJA_ALUMNO,
+        COMPACTAR_ALUMNOS, COMPACTAR_NOTAS, CAMBIAR_ALMACEN, ABRIR_MAPEADO, SINCRONIZAR_NOTAS
+    }
+
+    private static final Metricas INSTANCIA = new Metricas();
+    private static final ThreadLocal<Pila> PILAS = ThreadLocal.withInitial(Pila::new);
+    private static final com.sun.management.ThreadMXBean HILOS = hilosConMemoria();
+
+    private static volatile boolean activas = Boolean.getBoolean("notas.metricas");
+    private static boolean registradas; // Indica si ya se han registrado en JMX.
+
+    private final Medidor[] medidores; // Un medidor por operación.
+
+    static {
+        if (activas) {
+            registrarJmx();
+        }
+    }
+
+    private Metricas() {
+        Operacion[] operaciones = Operacion.values();
+        medidores = new Medidor[operaciones.length];
+        for (int i = 0; i < operaciones.length; i++) {
+            medidores[i] = new Medidor(operaciones[i].name());
+        }
+    }
+
+    /**
+     * Empieza a medir una operación.
+     * @return Marca de inicio que hay que pasar a fin(), o 0 si las métricas están desactivadas.
+     */
+    static long inicio() {
+        if (!activas) {
+            return 0;
+        }
+        long nanos = System.nanoTime();
+        PILAS.get().apilar(nanos, bytesReservados());
+        return nanos;
+    }
+
+    /**
+     * Termina de medir una operación y registra su duración y los bytes reservados.
+     * @param operacion Operación medida.
+     * @param inicio Marca devuelta por inicio().
+     */
+    static void fin(Operacion operacion, long inicio) {
+        if (inicio == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytesInicio = PILAS.get().desapilar(inicio);
+        long bytes = bytesInicio < 0 ? 0 : bytesReservados() - bytesInicio;
+        INSTANCIA.medidores[operacion.ordinal()].registrar(nanos, bytes);
+    }
+
+    /**
+     * Activa las métricas y las registra en JMX si no lo estaban.
+     */
+    public static void activar() {
+        registrarJmx();
+        activas = true;
+    }
+
+    /**
+     * Desactiva las métricas. Los valores acumulados se conservan.
+     */
+    public static void desactivar() {
+        activas = false;
+    }
+
+    /**
+     * @return Objeto con las métricas, el mismo que se registra en JMX.
+     */
+    public static Metricas getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Registra las métricas en el servidor de MBeans de la plataforma (solo la primera vez).
+     */
+    public static synchronized void registrarJmx() {
+        if (registradas) {
+            return;
+        }
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            servidor.registerMBean(INSTANCIA, new ObjectName(NOMBRE_JMX));
+            registradas = true;
+        } catch (JMException | SecurityException e) {
+            System.out.println("[!] No se han podido registrar las métricas en JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isActivas() {
+        return activas;
+    }
+
+    @Override
+    public void setActivas(boolean activar) {
+        activas = activar;
+    }
+
+    @Override
+    public List<MetricaOperacion> getOperaciones() {
+        List<MetricaOperacion> lista = new ArrayList<>();
+        for (Medidor medidor : medidores) {
+            if (medidor.llamadas.sum() > 0) {
+                lista.add(medidor.foto());
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Devuelve las métricas acumuladas de una operación.
+     * @param operacion Operación.
+     * @return Métricas de la operación.
+     */
+    public MetricaOperacion getOperacion(Operacion operacion) {
+        return medidores[operacion.ordinal()].foto();
+    }
+
+    @Override
+    public void reiniciar() {
+        for (Medidor medidor : medidores) {
+            medidor.reiniciar();
+        }
+    }
+
+    /**
+     * @return Bytes reservados hasta ahora por el hilo actual, o 0 si la JVM no lo mide.
+     */
+    private static long bytesReservados() {
+        return HILOS != null ? HILOS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * @return Bean de hilos de la JVM si permite medir la memoria reservada por hilo, o null.
+     */
+    private static com.sun.management.ThreadMXBean hilosConMemoria() {
+        java.lang.management.ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean conMemoria = (com.sun.management.ThreadMXBean) hilos;
+            if (conMemoria.isThreadAllocatedMemorySupported() && conMemoria.isThreadAllocatedMemoryEnabled()) {
+                return conMemoria;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Contadores de una operación. Se usan LongAdder para que varios hilos puedan
+     * registrar a la vez sin competir por la misma variable.
+     * El histograma tiene un intervalo por potencia de dos de nanosegundos.
+     */
+    private static final class Medidor {
+
+        private final String nombre;
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] latencias = new LongAdder[64];
+
+        Medidor(String nombre) {
+            this.nombre = nombre;
+            for (int i = 0; i < latencias.length; i++) {
+                latencias[i] = new LongAdder();
+            }
+        }
+
+        void registrar(long duracion, long reservados) {
+            llamadas.increment();
+            nanos.add(duracion);
+            bytes.add(reservados);
+            maximo.accumulate(duracion);
+            latencias[64 - Long.numberOfLeadingZeros(Math.max(0, duracion))].increment();
+        }
+
+        /**
+         * Calcula un percentil a partir del histograma.
+         * @param cuentas Llamadas de cada intervalo.
+         * @param total Total de llamadas.
+         * @param fraccion Percentil entre 0 y 1.
+         * @return Límite superior del intervalo del percentil, en nanosegundos.
+         */
+        private static long percentil(long[] cuentas, long total, double fraccion) {
+            long posicion = Math.max(1, (long) Math.ceil(fraccion * total));
+            long acumuladas = 0;
+            for (int i = 0; i < cuentas.length; i++) {
+                acumuladas += cuentas[i];
+                if (acumuladas >= posicion) {
+                    return i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                }
+            }
+            return 0;
+        }
+
+        MetricaOperacion foto() {
+            long[] cuentas = new long[latencias.length];
+            long total = 0;
+            for (int i = 0; i < cuentas.length; i++) {
+                cuentas[i] = latencias[i].sum();
+                total += cuentas[i];
+            }
+            return new MetricaOperacion(nombre, llamadas.sum(), nanos.sum(), bytes.sum(),
+                    percentil(cuentas, total, 0.5), percentil(cuentas, total, 0.99), maximo.get());
+        }
+
+        void reiniciar() {
+            llamadas.reset();
+            nanos.reset();
+            bytes.reset();
+            maximo.reset();
+            for (LongAdder latencia : latencias) {
+                latencia.reset();
+            }
+        }
+    }
+
+    /**
+     * Pila por hilo con las medidas en curso, para restar bien los bytes de las operaciones anidadas.
+     * Si una operación termina con una excepción y no llama a fin(), su medida se descarta cuando
+     * termina la operación que la contenía, o cuando la pila se llena si no había ninguna.
+     */
+    private static final class Pila {
+
+        private static final int MAXIMO = 64; // Mucho más que el anidamiento real de las operaciones.
+
+        private final long[] inicios = new long[MAXIMO];
+        private final long[] bytes = new long[MAXIMO];
+        private int profundidad;
+
+        void apilar(long inicio, long reservados) {
+            if (profundidad == MAXIMO) {
+                profundidad = 0; // Solo quedan medidas abandonadas.
+            }
+            inicios[profundidad] = inicio;
+            bytes[profundidad] = reservados;
+            profundidad++;
+        }
+
+        /**
+         * Saca de la pila la medida con la marca dada y las que quedaron encima sin terminar.
+         * @param inicio Marca de inicio.
+         * @return Bytes reservados al empezar, o -1 si la medida no está en la pila.
+         */
+        long desapilar(long inicio) {
+            for (int i = profundidad - 1; i >= 0; i--) {
+                if (inicios[i] == inicio) {
+                    profundidad = i;
+                    return bytes[i];
+                }
+            }
+            return -1;
+        }
+    }
+}
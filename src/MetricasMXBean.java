@@ -0,0 +1,28 @@
+import java.util.List;
+
+/**
+ * Interfaz JMX de las métricas de las operaciones de Grupo y Asignatura.
+ */
+public interface MetricasMXBean {
+
+    /**
+     * @return true si se están registrando métricas.
+     */
+    boolean isActivas();
+
+    /**
+     * Activa o desactiva el registro de métricas sin perder lo acumulado.
+     * @param activar true para activar.
+     */
+    void setActivas(boolean activar);
+
+    /**
+     * @return Métricas de las operaciones que se han llamado al menos una vez.
+     */
+    List<MetricaOperacion> getOperaciones();
+
+    /**
+     * Pone a cero todas las métricas.
+     */
+    void reiniciar();
+}
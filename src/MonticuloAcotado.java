@@ -0,0 +1,119 @@
+/**
+ * Montículo de tamaño limitado que conserva los k mejores elementos de una secuencia.
+ * Cada elemento es un valor (double) con un índice (int), guardados en arrays primitivos
+ * para no crear objetos. La raíz es el peor de los conservados, de modo que cada nuevo
+ * elemento solo se compara con ella: procesar n elementos cuesta O(n log k).
+ * A igualdad de valor se considera mejor el índice menor.
+ */
+class MonticuloAcotado {
+
+    private final double[] valores; // Valores de los elementos conservados.
+    private final int[] indices;    // Índices de los elementos conservados.
+    private final boolean mayores;  // true si los mejores son los de mayor valor.
+    private int tamano;             // Número de elementos conservados.
+
+    /**
+     * Constructor del montículo.
+     * @param capacidad Número de elementos a conservar (k).
+     * @param mayores true para conservar los mayores valores, false para los menores.
+     */
+    MonticuloAcotado(int capacidad, boolean mayores) {
+        this.valores = new double[capacidad];
+        this.indices = new int[capacidad];
+        this.mayores = mayores;
+    }
+
+    /**
+     * Ofrece un elemento: se conserva si está entre los k mejores vistos hasta ahora.
+     * @param valor Valor del elemento.
+     * @param indice Índice del elemento.
+     */
+    void ofrecer(double valor, int indice) {
+        if (tamano < valores.length) {
+            valores[tamano] = valor;
+            indices[tamano] = indice;
+            subir(tamano++);
+        } else if (tamano > 0 && esMejor(valor, indice, valores[0], indices[0])) {
+            valores[0] = valor;
+            indices[0] = indice;
+            bajar(0);
+        }
+    }
+
+    /**
+     * Ofrece todos los elementos conservados por otro montículo (por ejemplo, el de otra
+     * parte de los datos recorrida en paralelo). El otro montículo no se modifica.
+     * @param otro Montículo con el mismo criterio.
+     */
+    void combinar(MonticuloAcotado otro) {
+        for (int i = 0; i < otro.tamano; i++) {
+            ofrecer(otro.valores[i], otro.indices[i]);
+        }
+    }
+
+    /**
+     * Vacía el montículo y devuelve los índices conservados, del mejor al peor.
+     * @return Índices ordenados.
+     */
+    int[] extraerOrdenados() {
+        int[] resultado = new int[tamano];
+        while (tamano > 0) {
+            resultado[tamano - 1] = indices[0]; // La raíz es el peor de los que quedan.
+            tamano--;
+            valores[0] = valores[tamano];
+            indices[0] = indices[tamano];
+            bajar(0);
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica si el elemento a es mejor que el elemento b.
+     */
+    private boolean esMejor(double valorA, int indiceA, double valorB, int indiceB) {
+        if (valorA != valorB) {
+            return mayores ? valorA > valorB : valorA < valorB;
+        }
+        return indiceA < indiceB;
+    }
+
+    private void subir(int posicion) {
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            // El padre debe ser peor que el hijo
+            if (!esMejor(valores[padre], indices[padre], valores[posicion], indices[posicion])) {
+                return;
+            }
+            intercambiar(padre, posicion);
+            posicion = padre;
+        }
+    }
+
+    private void bajar(int posicion) {
+        while (true) {
+            int peor = posicion;
+            int izquierdo = 2 * posicion + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamano && esMejor(valores[peor], indices[peor], valores[izquierdo], indices[izquierdo])) {
+                peor = izquierdo;
+            }
+            if (derecho < tamano && esMejor(valores[peor], indices[peor], valores[derecho], indices[derecho])) {
+                peor = derecho;
+            }
+            if (peor == posicion) {
+                return;
+            }
+            intercambiar(posicion, peor);
+            posicion = peor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        double valor = valores[a];
+        valores[a] = valores[b];
+        valores[b] = valor;
+        int indice = indices[a];
+        indices[a] = indices[b];
+        indices[b] = indice;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Almacén de notas respaldado por un array de double propio de la asignatura.
+ */
+public class NotasArray implements AlmacenNotas {
+
+    private final double[] notas; // Array con las notas de los alumnos.
+
+    /**
+     * Constructor que crea un almacén vacío (todas las notas a 0).
+     * @param totalAlumnos Número de alumnos.
+     */
+    public NotasArray(int totalAlumnos) {
+        this.notas = new double[totalAlumnos];
+    }
+
+    /**
+     * Constructor que usa un array existente (no se copia).
+     * @param notas Array de notas.
+     */
+    public NotasArray(double[] notas) {
+        this.notas = notas;
+    }
+
+    @Override
+    public int longitud() {
+        return notas.length;
+    }
+
+    @Override
+    public double nota(int alumno) {
+        return notas[alumno];
+    }
+
+    @Override
+    public void ponerNota(int alumno, double nota) {
+        notas[alumno] = nota;
+    }
+
+    @Override
+    public double suma() {
+        return KernelNotas.ACTUAL.suma(notas, 0, notas.length);
+    }
+
+    @Override
+    public double minimo() {
+        return KernelNotas.ACTUAL.minimo(notas, 0, notas.length);
+    }
+
+    @Override
+    public double maximo() {
+        return KernelNotas.ACTUAL.maximo(notas, 0, notas.length);
+    }
+
+    @Override
+    public int contarMenores(double limite) {
+        return KernelNotas.ACTUAL.contarMenores(notas, 0, notas.length, limite);
+    }
+
+    @Override
+    public void reducir(double limite, ReduccionNotas resultado) {
+        KernelNotas.ACTUAL.reducir(notas, 0, notas.length, limite, resultado);
+    }
+}
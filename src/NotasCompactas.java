@@ -0,0 +1,161 @@
+import java.util.Arrays;
+
+/**
+ * Almacén de notas compacto: cada nota se guarda en un byte como número de décimas
+ * (de 0 a 100), ocupando 8 veces menos memoria que un double.
+ * Las notas se redondean a la décima más cercana al guardarlas y las reducciones
+ * se hacen con enteros, convirtiendo a double solo el resultado.
+ * Puede crecer al añadir alumnos: el array duplica su capacidad cuando se llena, así que
+ * añadir cuesta O(1) amortizado y las notas siguen ocupando un byte.
+ */
+public class NotasCompactas implements AlmacenNotas {
+
+    private byte[] decimas; // Nota de cada alumno en décimas (0..100); puede sobrar capacidad al final.
+    private int longitud;   // Número de notas.
+
+    /**
+     * Constructor que crea un almacén con todas las notas a 0.
+     * @param totalAlumnos Número de alumnos.
+     */
+    public NotasCompactas(int totalAlumnos) {
+        this.decimas = new byte[totalAlumnos];
+        this.longitud = totalAlumnos;
+    }
+
+    /**
+     * Constructor que usa un array de décimas existente (no se copia).
+     * @param decimas Nota de cada alumno en décimas.
+     */
+    NotasCompactas(byte[] decimas) {
+        this.decimas = decimas;
+        this.longitud = decimas.length;
+    }
+
+    /**
+     * @return Array con las notas en décimas (no es una copia; solo valen las longitud() primeras).
+     */
+    byte[] decimas() {
+        return decimas;
+    }
+
+    /**
+     * Añade una nota al final, redondeada a décimas.
+     * @param nota Nota a añadir.
+     */
+    void añadir(double nota) {
+        if (longitud == decimas.length) {
+            decimas = Arrays.copyOf(decimas, Math.max(16, decimas.length * 2));
+        }
+        decimas[longitud++] = aDecimas(nota);
+    }
+
+    /**
+     * Convierte una nota a décimas redondeando a la más cercana.
+     * @param nota Nota entre 0 y 10.
+     * @return Nota en décimas.
+     */
+    static byte aDecimas(double nota) {
+        return (byte) Math.round(nota * 10);
+    }
+
+    @Override
+    public int longitud() {
+        return longitud;
+    }
+
+    @Override
+    public double nota(int alumno) {
+        return decimas[alumno] / 10.0;
+    }
+
+    @Override
+    public void ponerNota(int alumno, double nota) {
+        decimas[alumno] = aDecimas(nota);
+    }
+
+    @Override
+    public double suma() {
+        long suma = 0;
+        for (int i = 0; i < longitud; i++) {
+            suma += decimas[i];
+        }
+        return suma / 10.0;
+    }
+
+    @Override
+    public double minimo() {
+        if (longitud == 0) {
+            return Double.MAX_VALUE;
+        }
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0; i < longitud; i++) {
+            minimo = Math.min(minimo, decimas[i]);
+        }
+        return minimo / 10.0;
+    }
+
+    @Override
+    public double maximo() {
+        if (longitud == 0) {
+            return -Double.MAX_VALUE;
+        }
+        int maximo = Integer.MIN_VALUE;
+        for (int i = 0; i < longitud; i++) {
+            maximo = Math.max(maximo, decimas[i]);
+        }
+        return maximo / 10.0;
+    }
+
+    @Override
+    public int contarMenores(double limite) {
+        int umbral = umbralDecimas(limite);
+        int total = 0;
+        for (int i = 0; i < longitud; i++) {
+            total += decimas[i] < umbral ? 1 : 0;
+        }
+        return total;
+    }
+
+    @Override
+    public void reducir(double limite, ReduccionNotas resultado) {
+        int umbral = umbralDecimas(limite);
+        long suma = 0;
+        long sumaCuadrados = 0;
+        int menores = 0;
+        int minimo = Integer.MAX_VALUE;
+        int maximo = Integer.MIN_VALUE;
+        for (int i = 0; i < longitud; i++) {
+            int d = decimas[i];
+            suma += d;
+            sumaCuadrados += d * d;
+            menores += d < umbral ? 1 : 0;
+            minimo = Math.min(minimo, d);
+            maximo = Math.max(maximo, d);
+        }
+        resultado.suma += suma / 10.0;
+        resultado.sumaCuadrados += sumaCuadrados / 100.0;
+        resultado.menores += menores;
+        if (longitud > 0) {
+            resultado.minimo = Math.min(resultado.minimo, minimo / 10.0);
+            resultado.maximo = Math.max(resultado.maximo, maximo / 10.0);
+        }
+    }
+
+    /**
+     * Calcula el menor número de décimas cuya nota no es menor que el límite,
+     * de forma que "nota < limite" equivale a "decimas < umbral".
+     * @param limite Valor de referencia.
+     * @return Umbral en décimas.
+     */
+    static int umbralDecimas(double limite) {
+        int umbral = (int) Math.ceil(limite * 10);
+        // Corrige los errores de redondeo de limite * 10.
+        while ((umbral - 1) / 10.0 >= limite) {
+            umbral--;
+        }
+        while (umbral / 10.0 < limite) {
+            umbral++;
+        }
+        return umbral;
+    }
+}
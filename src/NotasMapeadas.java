@@ -0,0 +1,64 @@
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Almacén de notas fuera del heap: las notas están en una región de un fichero
+ * proyectada en memoria. El sistema operativo carga las páginas a medida que se
+ * leen y las escrituras acaban en el fichero.
+ */
+public class NotasMapeadas implements AlmacenNotas {
+
+    private final MappedByteBuffer region; // Región del fichero proyectada en memoria.
+    private final DoubleBuffer notas;      // Vista de la región como notas.
+
+    /**
+     * Constructor que usa una región ya proyectada.
+     * @param region Región del fichero con una nota (double) por alumno.
+     */
+    public NotasMapeadas(MappedByteBuffer region) {
+        this.region = region;
+        this.notas = region.asDoubleBuffer();
+    }
+
+    @Override
+    public int longitud() {
+        return notas.capacity();
+    }
+
+    @Override
+    public double nota(int alumno) {
+        return notas.get(alumno);
+    }
+
+    @Override
+    public void ponerNota(int alumno, double nota) {
+        notas.put(alumno, nota);
+    }
+
+    /**
+     * Quita las notas de los alumnos dados de baja moviendo las demás hacia el principio de la
+     * misma región, en orden (cada nota se escribe en una posición que ya se ha leído).
+     * El fichero no cambia de tamaño: las notas que sobran al final se quedan sin usar.
+     * Este almacén deja de ser válido.
+     * @param nuevosIndices Índice nuevo de cada alumno (-1 para las bajas), crecientes.
+     * @param siguen Número de alumnos que siguen.
+     * @return Almacén sobre el principio de la región con las notas de los que siguen.
+     */
+    NotasMapeadas compactar(int[] nuevosIndices, int siguen) {
+        for (int i = 0; i < nuevosIndices.length; i++) {
+            if (nuevosIndices[i] >= 0) {
+                notas.put(nuevosIndices[i], notas.get(i));
+            }
+        }
+        MappedByteBuffer parte = region.slice(0, siguen * Double.BYTES);
+        parte.order(region.order());
+        return new NotasMapeadas(parte);
+    }
+
+    /**
+     * Fuerza la escritura en disco de las notas modificadas.
+     */
+    public void sincronizar() {
+        region.force();
+    }
+}
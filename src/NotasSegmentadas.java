@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * Almacén de notas que puede crecer, guardado en segmentos de tamaño fijo.
+ * Añadir una nota al final nunca copia las notas existentes: cuando el último segmento
+ * se llena se reserva otro, y solo el directorio de segmentos (un puntero por cada
+ * {@value #SEGMENTO} notas) se duplica cuando se queda pequeño, así que el coste es O(1) amortizado.
+ * Las reducciones se hacen segmento a segmento con el kernel de KernelNotas.
+ */
+class NotasSegmentadas implements AlmacenNotas {
+
+    static final int SEGMENTO = 1 << 10;            // Notas por segmento.
+    private static final int BITS_SEGMENTO = 10;    // log2(SEGMENTO).
+
+    private double[][] segmentos; // Directorio de segmentos (los que sobran al final son null).
+    private int longitud;         // Número de notas.
+
+    /**
+     * Constructor que crea un almacén vacío.
+     */
+    NotasSegmentadas() {
+        this.segmentos = new double[1][];
+    }
+
+    /**
+     * Constructor que copia las notas de otro almacén.
+     * @param origen Almacén de origen (null para empezar vacío).
+     */
+    NotasSegmentadas(AlmacenNotas origen) {
+        int total = origen != null ? origen.longitud() : 0;
+        this.segmentos = new double[Math.max(1, (total + SEGMENTO - 1) >>> BITS_SEGMENTO)][];
+        for (int i = 0; i < total; i++) {
+            añadir(origen.nota(i));
+        }
+    }
+
+    /**
+     * Añade una nota al final.
+     * @param nota Nota a añadir.
+     */
+    void añadir(double nota) {
+        int segmento = longitud >>> BITS_SEGMENTO;
+        if (segmento == segmentos.length) {
+            segmentos = Arrays.copyOf(segmentos, segmentos.length * 2); // Solo se copian punteros.
+        }
+        if (segmentos[segmento] == null) {
+            segmentos[segmento] = new double[SEGMENTO];
+        }
+        segmentos[segmento][longitud & (SEGMENTO - 1)] = nota;
+        longitud++;
+    }
+
+    @Override
+    public int longitud() {
+        return longitud;
+    }
+
+    @Override
+    public double nota(int alumno) {
+        return segmentos[alumno >>> BITS_SEGMENTO][alumno & (SEGMENTO - 1)];
+    }
+
+    @Override
+    public void ponerNota(int alumno, double nota) {
+        segmentos[alumno >>> BITS_SEGMENTO][alumno & (SEGMENTO - 1)] = nota;
+    }
+
+    @Override
+    public double suma() {
+        double suma = 0;
+        for (int s = 0; s * SEGMENTO < longitud; s++) {
+            suma += KernelNotas.ACTUAL.suma(segmentos[s], 0, notasEnSegmento(s));
+        }
+        return suma;
+    }
+
+    @Override
+    public double minimo() {
+        double minimo = Double.MAX_VALUE;
+        for (int s = 0; s * SEGMENTO < longitud; s++) {
+            minimo = Math.min(minimo, KernelNotas.ACTUAL.minimo(segmentos[s], 0, notasEnSegmento(s)));
+        }
+        return minimo;
+    }
+
+    @Override
+    public double maximo() {
+        double maximo = -Double.MAX_VALUE;
+        for (int s = 0; s * SEGMENTO < longitud; s++) {
+            maximo = Math.max(maximo, KernelNotas.ACTUAL.maximo(segmentos[s], 0, notasEnSegmento(s)));
+        }
+        return maximo;
+    }
+
+    @Override
+    public int contarMenores(double limite) {
+        int total = 0;
+        for (int s = 0; s * SEGMENTO < longitud; s++) {
+            total += KernelNotas.ACTUAL.contarMenores(segmentos[s], 0, notasEnSegmento(s), limite);
+        }
+        return total;
+    }
+
+    @Override
+    public void reducir(double limite, ReduccionNotas resultado) {
+        for (int s = 0; s * SEGMENTO < longitud; s++) {
+            KernelNotas.ACTUAL.reducir(segmentos[s], 0, notasEnSegmento(s), limite, resultado);
+        }
+    }
+
+    /**
+     * @param segmento Índice del segmento.
+     * @return Número de notas ocupadas en el segmento.
+     */
+    private int notasEnSegmento(int segmento) {
+        return Math.min(SEGMENTO, longitud - segmento * SEGMENTO);
+    }
+}
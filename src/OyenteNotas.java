@@ -0,0 +1,18 @@
+/**
+ * Recibe los avisos de cambios en las notas de una asignatura, por ejemplo para que un grupo
+ * mantenga al día los datos que calcula a partir de ellas.
+ * Los avisos llegan justo después de aplicar el cambio, desde el hilo que lo hace.
+ */
+interface OyenteNotas {
+
+    /**
+     * Ha cambiado la nota de un alumno.
+     * @param alumno Índice del alumno.
+     */
+    void notaCambiada(int alumno);
+
+    /**
+     * Han cambiado muchas notas a la vez o se han sustituido todas.
+     */
+    void notasCambiadas();
+}
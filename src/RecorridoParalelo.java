@@ -0,0 +1,43 @@
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Tarea fork/join que aplica una acción a todos los índices de un rango,
+ * dividiendo el rango en mitades hasta que su tamaño no supera el umbral.
+ */
+class RecorridoParalelo extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntConsumer accion; // Acción que se aplica a cada índice.
+    private final int desde;          // Primer índice del rango (incluido).
+    private final int hasta;          // Último índice del rango (excluido).
+    private final int umbral;         // Tamaño máximo de rango que se recorre sin dividir.
+
+    /**
+     * Constructor de la tarea.
+     * @param accion Acción que se aplica a cada índice.
+     * @param desde Primer índice (incluido).
+     * @param hasta Último índice (excluido).
+     * @param umbral Tamaño máximo de rango que se recorre secuencialmente.
+     */
+    RecorridoParalelo(IntConsumer accion, int desde, int hasta, int umbral) {
+        this.accion = accion;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.umbral = Math.max(1, umbral);
+    }
+
+    @Override
+    protected void compute() {
+        if (hasta - desde <= umbral) {
+            for (int i = desde; i < hasta; i++) {
+                accion.accept(i);
+            }
+        } else {
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new RecorridoParalelo(accion, desde, mitad, umbral),
+                    new RecorridoParalelo(accion, mitad, hasta, umbral));
+        }
+    }
+}
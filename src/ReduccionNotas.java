@@ -0,0 +1,13 @@
+/**
+ * Resultado de recorrer las notas una sola vez: suma, suma de cuadrados, número de notas
+ * menores que un límite, mínimo y máximo. Los almacenes y los kernels acumulan en él tramo a tramo,
+ * así que un almacén por segmentos lo rellena con una llamada al kernel por segmento.
+ */
+final class ReduccionNotas {
+
+    double suma;                        // Suma de las notas.
+    double sumaCuadrados;               // Suma de los cuadrados de las notas.
+    int menores;                        // Notas menores que el límite.
+    double minimo = Double.MAX_VALUE;   // Nota mínima (Double.MAX_VALUE si no hay notas).
+    double maximo = -Double.MAX_VALUE;  // Nota máxima (-Double.MAX_VALUE si no hay notas).
+}
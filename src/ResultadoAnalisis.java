@@ -0,0 +1,93 @@
+/**
+ * Resultado de un análisis de notas: el veredicto y cuántos alumnos hay en cada categoría.
+ * Lo crea quien llama y se rellena en cada análisis, así que puede reutilizarse para
+ * analizar muchas veces sin reservar memoria.
+ */
+public final class ResultadoAnalisis {
+
+    private Veredicto veredicto = Veredicto.SIN_NOTAS; // Veredicto del último análisis.
+    private int fenomenal; // Alumnos con nota mayor que 7.
+    private int repaso;    // Alumnos con nota entre 5 y 7.
+    private int mal;       // Alumnos con nota menor que 5.
+
+    /**
+     * Guarda las categorías y calcula el veredicto: gana la primera categoría que
+     * reúne los dos tercios del grupo, en el orden fenomenal, repaso y mal.
+     * @param fenomenal Alumnos con nota mayor que 7.
+     * @param repaso Alumnos con nota entre 5 y 7.
+     * @param mal Alumnos con nota menor que 5.
+     * @return Veredicto calculado.
+     */
+    Veredicto fijar(int fenomenal, int repaso, int mal) {
+        this.fenomenal = fenomenal;
+        this.repaso = repaso;
+        this.mal = mal;
+        int dosTercios = (getTotal() / 3) * 2; // Calcula los dos tercios del grupo.
+        if (fenomenal >= dosTercios) {
+            veredicto = Veredicto.FENOMENAL;
+        } else if (repaso >= dosTercios) {
+            veredicto = Veredicto.REPASO;
+        } else if (mal >= dosTercios) {
+            veredicto = Veredicto.MAL;
+        } else {
+            veredicto = Veredicto.SUBGRUPOS;
+        }
+        return veredicto;
+    }
+
+    /**
+     * Deja el resultado sin notas.
+     * @return Veredicto.SIN_NOTAS.
+     */
+    Veredicto vaciar() {
+        fenomenal = 0;
+        repaso = 0;
+        mal = 0;
+        veredicto = Veredicto.SIN_NOTAS;
+        return veredicto;
+    }
+
+    /**
+     * @return Veredicto del último análisis.
+     */
+    public Veredicto getVeredicto() {
+        return veredicto;
+    }
+
+    /**
+     * @return Alumnos con nota mayor que 7.
+     */
+    public int getFenomenal() {
+        return fenomenal;
+    }
+
+    /**
+     * @return Alumnos con nota mayor o igual que 5 y no mayor que 7.
+     */
+    public int getRepaso() {
+        return repaso;
+    }
+
+    /**
+     * @return Alumnos con nota menor que 5.
+     */
+    public int getMal() {
+        return mal;
+    }
+
+    /**
+     * @return Alumnos analizados.
+     */
+    public int getTotal() {
+        return fenomenal + repaso + mal;
+    }
+
+    /**
+     * Devuelve un resumen del análisis.
+     * @return Cadena con el veredicto y las categorías.
+     */
+    @Override
+    public String toString() {
+        return veredicto + " (fenomenal: " + fenomenal + ", repaso: " + repaso + ", mal: " + mal + ")";
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: el grupo creado, las filas aceptadas y rechazadas,
+ * los motivos de rechazo y el rendimiento obtenido.
+ */
+public class ResultadoImportacion {
+
+    private final Grupo grupo;              // Grupo creado con las filas aceptadas.
+    private final int filasAceptadas;       // Número de alumnos importados.
+    private final int filasRechazadas;      // Número de filas descartadas por errores.
+    private final List<String> errores;     // Motivos de rechazo (solo los primeros).
+    private final long bytesLeidos;         // Tamaño del fichero leído.
+    private final long nanosegundos;        // Duración de la importación.
+
+    /**
+     * Constructor con todos los datos de la importación.
+     * @param grupo Grupo creado.
+     * @param filasAceptadas Filas importadas.
+     * @param filasRechazadas Filas descartadas.
+     * @param errores Motivos de rechazo.
+     * @param bytesLeidos Bytes leídos.
+     * @param nanosegundos Duración en nanosegundos.
+     */
+    ResultadoImportacion(Grupo grupo, int filasAceptadas, int filasRechazadas, List<String> errores,
+                         long bytesLeidos, long nanosegundos) {
+        this.grupo = grupo;
+        this.filasAceptadas = filasAceptadas;
+        this.filasRechazadas = filasRechazadas;
+        this.errores = errores;
+        this.bytesLeidos = bytesLeidos;
+        this.nanosegundos = nanosegundos;
+    }
+
+    /**
+     * @return Grupo creado con las filas aceptadas.
+     */
+    public Grupo getGrupo() {
+        return grupo;
+    }
+
+    /**
+     * @return Número de filas importadas.
+     */
+    public int getFilasAceptadas() {
+        return filasAceptadas;
+    }
+
+    /**
+     * @return Número de filas descartadas.
+     */
+    public int getFilasRechazadas() {
+        return filasRechazadas;
+    }
+
+    /**
+     * @return Motivos de rechazo de las primeras filas descartadas.
+     */
+    public List<String> getErrores() {
+        return errores;
+    }
+
+    /**
+     * @return Filas procesadas por segundo.
+     */
+    public double filasPorSegundo() {
+        return (filasAceptadas + filasRechazadas) / (nanosegundos / 1e9);
+    }
+
+    /**
+     * @return Megabytes leídos por segundo.
+     */
+    public double megabytesPorSegundo() {
+        return (bytesLeidos / 1e6) / (nanosegundos / 1e9);
+    }
+
+    /**
+     * Devuelve un resumen de la importación.
+     * @return Cadena con las filas y el rendimiento.
+     */
+    @Override
+    public String toString() {
+        return "Filas importadas: " + filasAceptadas + ", rechazadas: " + filasRechazadas
+                + String.format(" (%.0f filas/s, %.1f MB/s)", filasPorSegundo(), megabytesPorSegundo());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Clase inmutable que agrupa las estadísticas de una asignatura:
+ * media, nota mínima, nota máxima, aprobados y suspensos.
+ */
+public final class Resumen {
+
+    private final int totalNotas; // Número de notas resumidas.
+    private final double media;   // Media de las notas.
+    private final double minimo;  // Nota mínima.
+    private final double maximo;  // Nota máxima.
+    private final int aprobados;  // Número de notas >= 5.
+    private final int suspensos;  // Número de notas < 5.
+
+    /**
+     * Constructor con todos los valores del resumen.
+     * @param totalNotas Número de notas resumidas.
+     * @param media Media de las notas.
+     * @param minimo Nota mínima.
+     * @param maximo Nota máxima.
+     * @param aprobados Número de aprobados.
+     * @param suspensos Número de suspensos.
+     */
+    public Resumen(int totalNotas, double media, double minimo, double maximo, int aprobados, int suspensos) {
+        this.totalNotas = totalNotas;
+        this.media = media;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.aprobados = aprobados;
+        this.suspensos = suspensos;
+    }
+
+    /**
+     * @return Número de notas resumidas.
+     */
+    public int getTotalNotas() {
+        return totalNotas;
+    }
+
+    /**
+     * @return Media de las notas.
+     */
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * @return Nota mínima.
+     */
+    public double getMinimo() {
+        return minimo;
+    }
+
+    /**
+     * @return Nota máxima.
+     */
+    public double getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * @return Número de aprobados.
+     */
+    public int getAprobados() {
+        return aprobados;
+    }
+
+    /**
+     * @return Número de suspensos.
+     */
+    public int getSuspensos() {
+        return suspensos;
+    }
+
+    /**
+     * Devuelve una representación en cadena del resumen.
+     * @return Cadena con las estadísticas.
+     */
+    @Override
+    public String toString() {
+        return "Media: " + media + ", Mínimo: " + minimo + ", Máximo: " + maximo
+                + ", Aprobados: " + aprobados + ", Suspensos: " + suspensos;
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Veredicto del análisis de un grupo de notas, según cuántos alumnos caen en cada categoría.
+ */
+public enum Veredicto {
+
+    /** Más de dos tercios tienen nota mayor que 7. */
+    FENOMENAL("VAMOS FENOMENAL"),
+    /** Más de dos tercios tienen nota mayor o igual que 5. */
+    REPASO("REPASAR EJERCICIOS CON DIFICULTAD"),
+    /** Más de dos tercios tienen nota menor que 5. */
+    MAL("VAMOS MAL. REPETIR EL TEMARIO"),
+    /** Ninguna de las anteriores. */
+    SUBGRUPOS("HACER SUBGRUPOS CON TAREAS DE DIFERENTE DIFICULTAD"),
+    /** No hay notas que analizar. */
+    SIN_NOTAS("No existen notas en la Array");
+
+    private final String mensaje; // Texto que escribe el análisis en consola.
+
+    Veredicto(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    /**
+     * @return Recomendación que se muestra en consola para este veredicto.
+     */
+    public String getMensaje() {
+        return mensaje;
+    }
+}
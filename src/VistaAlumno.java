@@ -0,0 +1,83 @@
+/**
+ * Vista de un alumno durante el recorrido de una consulta sobre un grupo.
+ * La consulta mueve la misma vista de un alumno al siguiente, así que no se crea un objeto
+ * por alumno; la suma de notas y los suspensos se calculan solo si algún filtro o valor
+ * los pide, y como mucho una vez por alumno. No debe guardarse fuera del filtro o la función.
+ */
+public final class VistaAlumno {
+
+    private final Grupo grupo; // Grupo que se recorre.
+    private int alumno;        // Índice del alumno actual.
+    private boolean conSuma;   // Indica si ya se ha calculado la suma del alumno actual.
+    private double suma;       // Suma de las notas del alumno actual.
+    private int suspensos;     // Suspensos del alumno actual (-1 si aún no se han contado).
+
+    /**
+     * Constructor de la vista.
+     * @param grupo Grupo que se recorre.
+     */
+    VistaAlumno(Grupo grupo) {
+        this.grupo = grupo;
+    }
+
+    /**
+     * Pasa la vista a otro alumno.
+     * @param alumno Índice del alumno.
+     */
+    void mover(int alumno) {
+        this.alumno = alumno;
+        this.conSuma = false;
+        this.suspensos = -1;
+    }
+
+    /**
+     * @return Índice del alumno en el grupo.
+     */
+    public int indice() {
+        return alumno;
+    }
+
+    /**
+     * @return Nombre del alumno.
+     */
+    public String nombre() {
+        return grupo.getAlumno(alumno);
+    }
+
+    /**
+     * Devuelve la nota del alumno en una asignatura.
+     * @param asignatura Índice de la asignatura.
+     * @return Nota del alumno.
+     */
+    public double nota(int asignatura) {
+        return grupo.notaAlumno(alumno, asignatura);
+    }
+
+    /**
+     * @return Suma de las notas del alumno en todas las asignaturas.
+     */
+    public double suma() {
+        if (!conSuma) {
+            suma = grupo.sumaNotasAlumno(alumno);
+            conSuma = true;
+        }
+        return suma;
+    }
+
+    /**
+     * @return Media de las notas del alumno (la misma que dameAlumnoMedia).
+     */
+    public double media() {
+        return suma() / grupo.getTotalAsignaturas();
+    }
+
+    /**
+     * @return Número de asignaturas suspensas del alumno.
+     */
+    public int suspensos() {
+        if (suspensos < 0) {
+            suspensos = grupo.suspensosAlumno(alumno);
+        }
+        return suspensos;
+    }
+}